@@ -0,0 +1,63 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.EngineApplication;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.node.CatalogSeeder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ *  Application context of a benchmark: the engine without the web server on an embedded H2 database
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Every context gets its own in-memory database, the schema is created by Hibernate.
+ *  The static catalog files are turned off; the in-memory indexes follow the seeded catalog
+ *  as in the application (their rebuilds run in the background, before the measurement starts).
+ *  *****************************************************************
+ */
+
+final class BenchmarkCatalog implements AutoCloseable {
+
+    private static final AtomicInteger databases = new AtomicInteger();
+
+    private final ConfigurableApplicationContext context;
+    private final CatalogSeeder seeder;
+    private final List<Language> languages;
+
+    BenchmarkCatalog (int languageCount) {
+        this.context = new SpringApplicationBuilder(EngineApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark" + databases.incrementAndGet() + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "engine.static-catalog.enabled=false",
+                        "engine.init.language.code=ENG",
+                        "engine.init.language.name=English",
+                        "engine.init.language.note=benchmark",
+                        "logging.level.root=WARN")
+                .run();
+        this.seeder = context.getAutowireCapableBeanFactory().createBean(CatalogSeeder.class);
+        this.languages = seeder.seedLanguages(languageCount);
+    }
+
+    <T> T bean (Class<T> type) {
+        return context.getBean(type);
+    }
+
+    CatalogSeeder seeder () {
+        return seeder;
+    }
+
+    List<Language> languages () {
+        return languages;
+    }
+
+    @Override
+    public void close () {
+        context.close();
+    }
+
+}
@@ -0,0 +1,35 @@
+package dev.kofe.engine.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ *  Runs the benchmarks with the GC profiler (allocation rate per operation: gc.alloc.rate.norm)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  The benchmarks live in the 'jmh' source set (src/jmh/java) on top of the main classes,
+ *  with jmh-core, jmh-generator-annprocess, the H2 driver and ModelMapper (the baseline of
+ *  MapperComparisonBenchmark) on its classpath;
+ *  the seeder (CatalogSeeder) is a part of this source set only.
+ *  Arguments are the usual JMH command line ones, e.g.
+ *      NodeBenchmark -p depth=5 -p fanout=10
+ *  (without arguments all benchmarks run with their default parameters).
+ *  *****************************************************************
+ */
+
+public final class BenchmarkMain {
+
+    private BenchmarkMain () { }
+
+    public static void main (String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,78 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageDto;
+import dev.kofe.engine.language.LanguageJob;
+import dev.kofe.engine.language.LanguageJobService;
+import dev.kofe.engine.language.LanguageService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Adding a language to a seeded tree (see CatalogSeeder)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  addNewLanguage -- LanguageService.addNewLanguage and its background job (one descriptor per node),
+ *                    measured until the job is finished; every invocation adds one more language,
+ *                    so single shots are taken
+ *  *****************************************************************
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LanguageBenchmark {
+
+    @Param({"4"}) private int depth;
+    @Param({"10"}) private int fanout;
+    @Param({"3"}) private int languages;
+
+    private BenchmarkCatalog catalog;
+    private LanguageService languageService;
+    private LanguageJobService languageJobService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        catalog = new BenchmarkCatalog(languages);
+        languageService = catalog.bean(LanguageService.class);
+        languageJobService = catalog.bean(LanguageJobService.class);
+        catalog.seeder().seedTree(catalog.languages(), depth, fanout);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        catalog.close();
+    }
+
+    @Benchmark
+    public LanguageJob addNewLanguage () throws InterruptedException {
+        LanguageDto languageDto = new LanguageDto();
+        languageDto.setCode("B" + (++next));
+        languageDto.setName("Benchmark " + next);
+        languageDto.setActive(true);
+        Language language = languageService.addNewLanguage(languageDto);
+        LanguageJob job = languageJobService.findJobById(language.getJobId());
+        while (!job.isFinished()) {
+            Thread.sleep(1);
+            job = languageJobService.findJobById(language.getJobId());
+        }
+        return job;
+    }
+
+}
@@ -0,0 +1,84 @@
+package dev.kofe.engine.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kofe.engine.mapper.Mapper;
+import dev.kofe.engine.node.NodeDto;
+import dev.kofe.engine.node.NodeService;
+import dev.kofe.engine.node.NodeTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  DTO mapping and JSON of large trees, without the database (see CatalogSeeder)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  convertTree  -- Mapper.convertToNodeDto(NodeTree) of a whole root subtree (GET /nodes/{id}, GET /nodes/{id}/tree),
+ *                  the tree is loaded once before the measurement
+ *  nodesJson    -- JSON of the GET /nodes response: the DTOs are mapped once (in a transaction, subs and
+ *                  descriptors are loaded lazily as in the controller), only the serialization is measured
+ *  *****************************************************************
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"4", "5"}) private int depth;
+    @Param({"10"}) private int fanout;
+    @Param({"3"}) private int languages;
+
+    private BenchmarkCatalog catalog;
+    private Mapper mapper;
+    private ObjectMapper objectMapper;
+    private NodeTree tree;
+    private List<NodeDto> nodes;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        catalog = new BenchmarkCatalog(languages);
+        mapper = catalog.bean(Mapper.class);
+        objectMapper = catalog.bean(ObjectMapper.class);
+        NodeService nodeService = catalog.bean(NodeService.class);
+        List<Long> roots = catalog.seeder().seedTree(catalog.languages(), depth, fanout);
+        tree = nodeService.findNodeTree(roots.get(0), null, null);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(catalog.bean(PlatformTransactionManager.class));
+        nodes = transactionTemplate.execute((status) ->
+                Mapper.convertList(nodeService.findAllNodes(), (item) -> mapper.convertToNodeDto(item)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        catalog.close();
+    }
+
+    @Benchmark
+    public NodeDto convertTree () {
+        return mapper.convertToNodeDto(tree);
+    }
+
+    @Benchmark
+    public byte[] nodesJson () throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(nodes);
+    }
+
+}
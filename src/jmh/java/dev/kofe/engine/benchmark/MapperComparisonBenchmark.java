@@ -0,0 +1,86 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.mapper.Mapper;
+import dev.kofe.engine.node.Node;
+import dev.kofe.engine.node.NodeDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Mapper against the ModelMapper baseline on the same entity trees (see CatalogSeeder, ModelMapperBaseline)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  The whole catalog (fanout 10: depth 4 = 11110, 5 = 111110, 6 = 1111110 nodes) is loaded once
+ *  into one entity manager kept open for the trial: nodes with their descriptors and languages,
+ *  then the subs. Both benchmarks map every root with its subtree (GET /nodes/{id} of all roots)
+ *  from these entities, so no SQL is measured.
+ *  mapper       -- Mapper.convertToNodeDto(Node)
+ *  modelMapper  -- the same DTOs by the reflective ModelMapper path
+ *  Depth 6 needs a large heap (e.g. -jvmArgsAppend -Xmx8g).
+ *  *****************************************************************
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MapperComparisonBenchmark {
+
+    @Param({"4", "5", "6"}) private int depth;
+    @Param({"10"}) private int fanout;
+    @Param({"3"}) private int languages;
+
+    private BenchmarkCatalog catalog;
+    private EntityManager entityManager;
+    private Mapper mapper;
+    private ModelMapperBaseline baseline;
+    private List<Node> roots;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        catalog = new BenchmarkCatalog(languages);
+        mapper = catalog.bean(Mapper.class);
+        baseline = new ModelMapperBaseline();
+        catalog.seeder().seedTree(catalog.languages(), depth, fanout);
+        entityManager = catalog.bean(EntityManagerFactory.class).createEntityManager();
+        entityManager.createQuery("select n from Node n left join fetch n.descriptors d left join fetch d.language", Node.class)
+                .getResultList();
+        entityManager.createQuery("select n from Node n left join fetch n.subs", Node.class).getResultList();
+        roots = entityManager.createQuery("select n from Node n where n.parent is null order by n.sortKey, n.id", Node.class)
+                .getResultList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        entityManager.close();
+        catalog.close();
+    }
+
+    @Benchmark
+    public List<NodeDto> mapper () {
+        return Mapper.convertList(roots, (item) -> mapper.convertToNodeDto(item));
+    }
+
+    @Benchmark
+    public List<NodeDto> modelMapper () {
+        return Mapper.convertList(roots, (item) -> baseline.convertToNodeDto(item));
+    }
+
+}
@@ -0,0 +1,50 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.descriptor.DescriptorDto;
+import dev.kofe.engine.node.Node;
+import dev.kofe.engine.node.NodeDto;
+import dev.kofe.engine.node.NodeParentDto;
+import org.modelmapper.ModelMapper;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/*
+ *  The reflective node mapping that Mapper replaced, kept as the baseline of MapperComparisonBenchmark
+ *  [Kofe Simple Engine]
+ *  same steps as before: ModelMapper.map of the node, then subs, descriptors and the parent
+ *  (with its descriptors again for every sub), lists through a stream collector
+ */
+
+final class ModelMapperBaseline {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+
+    private static <R, E> List<R> convertList (Collection<E> items, Function<E, R> converter) {
+        return (items != null) ? items.stream().map(converter).collect(Collectors.toList()) : null;
+    }
+
+    DescriptorDto convertToDescriptorDto (Descriptor descriptor) {
+        return modelMapper.map(descriptor, DescriptorDto.class);
+    }
+
+    NodeDto convertToNodeDto (Node node) {
+        NodeDto nodeDto = modelMapper.map(node, NodeDto.class);
+        nodeDto.setSubsDto(convertList(node.getSubs(), (item) -> convertToNodeDto(item)));
+        nodeDto.setDescriptorsDto(convertList(node.getDescriptors(), (item) -> convertToDescriptorDto(item)));
+        nodeDto.setNodeParentDto(convertToNodeParentDto(node));
+        return nodeDto;
+    }
+
+    private NodeParentDto convertToNodeParentDto (Node node) {
+        if (node.getParent() == null) {
+            return null;
+        }
+        NodeParentDto nodeParentDto = modelMapper.map(node.getParent(), NodeParentDto.class);
+        nodeParentDto.setDescriptorsDto(convertList(node.getParent().getDescriptors(), (item) -> convertToDescriptorDto(item)));
+        return nodeParentDto;
+    }
+
+}
@@ -0,0 +1,88 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.common.DoubleResult;
+import dev.kofe.engine.node.Node;
+import dev.kofe.engine.node.NodeDto;
+import dev.kofe.engine.node.NodeParentDto;
+import dev.kofe.engine.node.NodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Node write and decision paths on a seeded tree (see CatalogSeeder)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  relocationDecision  -- NodeService.getRelocationDecision (both nodes looked up, then isPossibleToRelocate),
+ *                         over pairs of nodes spread through the tree
+ *  addNode             -- NodeService.addNewNodeAndExpandEmptyDescriptors under nodes taken in turn,
+ *                         so the tree grows evenly during the measurement
+ *  *****************************************************************
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeBenchmark {
+
+    @Param({"4"}) private int depth;
+    @Param({"10"}) private int fanout;
+    @Param({"3"}) private int languages;
+
+    private BenchmarkCatalog catalog;
+    private NodeService nodeService;
+    private long[] ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        catalog = new BenchmarkCatalog(languages);
+        nodeService = catalog.bean(NodeService.class);
+        catalog.seeder().seedTree(catalog.languages(), depth, fanout);
+        List<Node> nodes = nodeService.findAllNodes();
+        ids = new long[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nodes.get(i).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        catalog.close();
+    }
+
+    @Benchmark
+    public DoubleResult<Boolean, Boolean> relocationDecision () {
+        int index = next++;
+        // a node and a destination far from each other: the ID order follows the levels of the seeded tree
+        return nodeService.getRelocationDecision(ids[Math.floorMod(index, ids.length)],
+                ids[(int) Math.floorMod((long) index * 7919 + ids.length / 2, (long) ids.length)]);
+    }
+
+    @Benchmark
+    public Node addNode () {
+        NodeParentDto parent = new NodeParentDto();
+        parent.setId(ids[Math.floorMod(next++, ids.length)]);
+        NodeDto nodeDto = new NodeDto();
+        nodeDto.setNote("benchmark");
+        nodeDto.setActive(true);
+        nodeDto.setNodeParentDto(parent);
+        return nodeService.addNewNodeAndExpandEmptyDescriptors(nodeDto);
+    }
+
+}
@@ -0,0 +1,72 @@
+package dev.kofe.engine.benchmark;
+
+import dev.kofe.engine.node.Node;
+import dev.kofe.engine.node.NodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ *  Relocation against the number of siblings (see CatalogSeeder)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Two roots with 'siblings' subs each and one more node moved from one root to the other
+ *  by NodeService.relocateToAnotherParentNode on every invocation.
+ *  The subs of the parents are neither loaded nor scanned (set-backed, touched only if loaded already;
+ *  sort key and aggregates by indexed queries and bulk updates), so the time per operation
+ *  and its allocation (gc.alloc.rate.norm) are expected to stay flat from 10 to 10000 siblings.
+ *  *****************************************************************
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RelocationBenchmark {
+
+    @Param({"10", "1000", "10000"}) private int siblings;
+    @Param({"3"}) private int languages;
+
+    private BenchmarkCatalog catalog;
+    private NodeService nodeService;
+    private Long[] parents;
+    private Long movingId;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp () {
+        catalog = new BenchmarkCatalog(languages);
+        nodeService = catalog.bean(NodeService.class);
+        List<Long> roots = catalog.seeder().seedSubs(null, 2, catalog.languages());
+        parents = roots.toArray(new Long[0]);
+        for (Long root : parents) {
+            catalog.seeder().seedSubs(root, siblings, catalog.languages());
+        }
+        movingId = catalog.seeder().seedSubs(parents[0], 1, catalog.languages()).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown () {
+        catalog.close();
+    }
+
+    @Benchmark
+    public Node relocate () {
+        return nodeService.relocateToAnotherParentNode(movingId, parents[Math.floorMod(++next, 2)]);
+    }
+
+}
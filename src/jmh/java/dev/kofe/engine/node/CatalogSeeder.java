@@ -0,0 +1,188 @@
+package dev.kofe.engine.node;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Synthetic catalog for the benchmarks
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Not a component: the benchmarks create it by the bean factory of their application context
+ *  (see BenchmarkCatalog), so it never runs in the application itself.
+ *
+ *  seedLanguages(count)                 -- missing languages are created: L1, L2 ...
+ *  seedTree(languages, depth, fanout)   -- regular tree: 'fanout' subs of every node, roots included
+ *                                          (depth 4, fanout 10: 11110 nodes)
+ *  seedSubs(parentId, count, languages) -- 'count' subs appended to the node (roots if parentId is null)
+ *
+ *  Nodes and descriptors are inserted as JDBC batches in transactions of 'engine.batch.size' nodes,
+ *  all seeded nodes are active. The regular tree is generated level by level: its subtree aggregates
+ *  are known up front; the aggregates of the ancestors of appended subs are updated in bulk.
+ *  *****************************************************************
+ */
+
+public class CatalogSeeder {
+
+    private record Seed(Long id, String path, String label) { }
+
+    private final NodeRepo nodeRepo;
+    private final LanguageRepo languageRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSeeder.class);
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+
+    @Autowired
+    public CatalogSeeder (NodeRepo nodeRepo,
+                          LanguageRepo languageRepo,
+                          PlatformTransactionManager transactionManager,
+                          ApplicationEventPublisher eventPublisher) {
+        this.nodeRepo = nodeRepo;
+        this.languageRepo = languageRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<Language> seedLanguages (int count) {
+        return transactionTemplate.execute((status) -> {
+            List<Language> all = new ArrayList<>(languageRepo.findAll());
+            for (int number = all.size() + 1; number <= count; number++) {
+                Language language = new Language();
+                language.setCode("L" + number);
+                language.setName("Language " + number);
+                language.setNote("seed");
+                if (all.isEmpty()) {
+                    language.setInitial(true);
+                    language.setBydefault(true);
+                }
+                all.add(languageRepo.save(language));
+            }
+            return all;
+        });
+    }
+
+    // IDs of the roots
+    public List<Long> seedTree (List<Language> languages, int depth, int fanout) {
+        long start = System.nanoTime();
+        long total = 0;
+        List<Long> roots = new ArrayList<>();
+        List<Seed> level = new ArrayList<>();
+        level.add(new Seed(null, null, ""));
+        int parentsPerTransaction = Math.max(1, batchSize / fanout);
+        for (int levelNumber = 0; levelNumber < depth; levelNumber++) {
+            int nodeDepth = levelNumber;
+            long descendants = descendantsAt(levelNumber, depth, fanout);
+            List<Seed> nextLevel = new ArrayList<>(level.size() * fanout);
+            for (int from = 0; from < level.size(); from += parentsPerTransaction) {
+                List<Seed> parents = level.subList(from, Math.min(from + parentsPerTransaction, level.size()));
+                nextLevel.addAll(transactionTemplate.execute((status) -> seedChildren(parents, languages, fanout, nodeDepth, descendants)));
+            }
+            if (levelNumber == 0) {
+                nextLevel.forEach((seed) -> roots.add(seed.id()));
+            }
+            total += nextLevel.size();
+            level = nextLevel;
+        }
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.LANGUAGES_CHANGED));
+        logger.info("Seed: " + total + " node(s) in " + languages.size() + " language(s) created in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return roots;
+    }
+
+    // IDs of the new subs, in their sibling order
+    public List<Long> seedSubs (Long parentId, int count, List<Language> languages) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += batchSize) {
+            int chunkSize = Math.min(batchSize, count - from);
+            ids.addAll(transactionTemplate.execute((status) -> {
+                Node parent = (parentId == null) ? null : nodeRepo.findById(parentId).orElseThrow();
+                Long lastKey = (parentId == null) ? nodeRepo.findMaxRootSortKey() : nodeRepo.findMaxSubSortKey(parentId);
+                Seed parentSeed = (parent == null) ? new Seed(null, null, "") : new Seed(parent.getId(), parent.getPath(), "s");
+                int depth = (parent == null) ? 0 : parent.getDepth() + 1;
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                DescendantCounts counts = new DescendantCounts();
+                List<Long> chunkIds = new ArrayList<>(chunkSize);
+                for (int number = 1; number <= chunkSize; number++) {
+                    lastKey = SiblingOrder.after(lastKey);
+                    Node node = persistNode(parentSeed, parentSeed.label() + "." + lastKey, languages, lastKey, depth, 0);
+                    counts.add(node.getPath(), 1, 1);
+                    chunkIds.add(node.getId());
+                }
+                entityManager.flush();
+                counts.apply(nodeRepo, batchSize);
+                entityManager.clear();
+                return chunkIds;
+            }));
+        }
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.LANGUAGES_CHANGED));
+        return ids;
+    }
+
+    // fanout + fanout^2 + ... down to the last level
+    private static long descendantsAt (int levelNumber, int depth, int fanout) {
+        long descendants = 0;
+        long levelSize = 1;
+        for (int below = levelNumber + 1; below < depth; below++) {
+            levelSize *= fanout;
+            descendants += levelSize;
+        }
+        return descendants;
+    }
+
+    private List<Seed> seedChildren (List<Seed> parents, List<Language> languages, int fanout, int nodeDepth, long descendants) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<Seed> children = new ArrayList<>(parents.size() * fanout);
+        for (Seed parent : parents) {
+            for (int number = 1; number <= fanout; number++) {
+                String label = parent.label().isEmpty() ? String.valueOf(number) : parent.label() + "." + number;
+                Node node = persistNode(parent, label, languages, number * SiblingOrder.GAP, nodeDepth, descendants);
+                children.add(new Seed(node.getId(), node.getPath(), label));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return children;
+    }
+
+    private Node persistNode (Seed parent, String label, List<Language> languages, long sortKey, int nodeDepth, long descendants) {
+        Node node = new Node();
+        node.setNote("seed " + label);
+        if (parent.id() != null) {
+            node.setParent(entityManager.getReference(Node.class, parent.id()));
+        }
+        node.setSortKey(sortKey);
+        node.setDepth(nodeDepth);
+        node.setDescendantCount(descendants);
+        node.setActiveDescendantCount(descendants);
+        node.setEffectivelyActive(true);
+        entityManager.persist(node);
+        node.setPath(NodePath.of(parent.path(), node.getId()));
+        for (Language language : languages) {
+            Descriptor descriptor = new Descriptor();
+            descriptor.setTitle("Item " + label + " " + language.getCode());
+            descriptor.setBrief("Seeded item " + label + " in " + language.getName());
+            descriptor.setLanguage(entityManager.getReference(Language.class, language.getId()));
+            descriptor.setNode(node);
+            entityManager.persist(descriptor);
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,35 @@
+package dev.kofe.engine.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+/*      Cache API
+ *      [Kofe Simple Engine]
+ *
+ *      GET /cache                          :   statistics of the catalog cache
+ *                                          :   per cache: size, maxSize, hits, misses, evictions
+ *                                          :   200 = ok
+ */
+
+@RestController
+@RequestMapping("/cache")
+public class CacheController {
+
+    private final CatalogCache catalogCache;
+
+    @Autowired
+    public CacheController (CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    @GetMapping("")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats () {
+        return new ResponseEntity<>(catalogCache.stats(), HttpStatus.OK);
+    }
+
+}
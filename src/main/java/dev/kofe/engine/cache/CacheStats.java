@@ -0,0 +1,3 @@
+package dev.kofe.engine.cache;
+
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions) { }
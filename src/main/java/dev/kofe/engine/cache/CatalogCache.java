@@ -0,0 +1,83 @@
+package dev.kofe.engine.cache;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.language.Language;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ *  Read-through catalog cache
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  descriptors  -- node ID -> descriptors of the node, at most 'engine.cache.descriptors.size' entries
+ *                  (GET /descriptors/node/{id}; node reads are served by subtree queries, see NodeService.findNodeTree)
+ *
+ *  Entries are evicted by LRU and invalidated after commit by CatalogEvent:
+ *  node events drop the listed nodes, language events drop all descriptors
+ *  (a descriptor snapshot contains its language)
+ *  *****************************************************************
+ */
+
+@Service
+public class CatalogCache {
+
+    private final DescriptorRepo descriptorRepo;
+    private final LruCache<Long, List<DescriptorSnapshot>> descriptors;
+
+    @Autowired
+    public CatalogCache (DescriptorRepo descriptorRepo,
+                         @Value("${engine.cache.descriptors.size:10000}") int descriptorsSize) {
+        this.descriptorRepo = descriptorRepo;
+        this.descriptors = new LruCache<>(descriptorsSize);
+    }
+
+    public List<DescriptorSnapshot> findDescriptorSnapshotsByNodeId (long nodeId) {
+        return descriptors.get(nodeId, this::loadDescriptors);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        if (event.type() == CatalogEvent.Type.LANGUAGES_CHANGED) {
+            descriptors.clear();
+        } else {
+            descriptors.invalidate(event.nodeIds());
+        }
+    }
+
+    public Map<String, CacheStats> stats () {
+        Map<String, CacheStats> stats = new LinkedHashMap<>();
+        stats.put("descriptors", descriptors.stats());
+        return stats;
+    }
+
+    private List<DescriptorSnapshot> loadDescriptors (Long nodeId) {
+        return descriptorRepo.findAllByNodeIds(List.of(nodeId)).stream()
+                .map(CatalogCache::snapshotOf)
+                .toList();
+    }
+
+    private static DescriptorSnapshot snapshotOf (Descriptor descriptor) {
+        Language language = descriptor.getLanguage();
+        return new DescriptorSnapshot(
+                descriptor.getId(),
+                descriptor.getTitle(),
+                descriptor.getBrief(),
+                descriptor.getFullDescr(),
+                language == null ? null : new DescriptorSnapshot.LanguageSnapshot(
+                        language.getId(),
+                        language.getCode(),
+                        language.getName(),
+                        language.getNote(),
+                        language.isInitial(),
+                        language.isBydefault(),
+                        language.isActive()));
+    }
+
+}
@@ -0,0 +1,13 @@
+package dev.kofe.engine.cache;
+
+/*
+ *  Immutable copy of the descriptor with its language
+ *  [Kofe Simple Engine]
+ */
+
+public record DescriptorSnapshot(Long id, String title, String brief, String fullDescr, LanguageSnapshot language) {
+
+    public record LanguageSnapshot(Long id, String code, String name, String note,
+                                   boolean initial, boolean bydefault, boolean active) { }
+
+}
@@ -0,0 +1,75 @@
+package dev.kofe.engine.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/*
+ *  Bounded LRU map with hit / miss / eviction counters
+ *  [Kofe Simple Engine]
+ *  a loaded value is stored only if nothing has been invalidated while it was being loaded,
+ *  so a read racing with a write can not put a stale value back
+ */
+
+class LruCache<K, V> {
+
+    private final int maxSize;
+    private final Map<K, V> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    LruCache (int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry (Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    V get (K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    entries.put(key, value);
+                }
+            }
+        }
+        return value;
+    }
+
+    synchronized void invalidate (Iterable<K> keys) {
+        generation++;
+        for (K key : keys) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized void clear () {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized CacheStats stats () {
+        return new CacheStats(entries.size(), maxSize, hits, misses, evictions);
+    }
+
+}
@@ -0,0 +1,29 @@
+package dev.kofe.engine.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/*
+ *  Catalog change event
+ *  [Kofe Simple Engine]
+ *  published by the write operations of the services; listeners (caches, indexes) react after commit
+ *  *****************************************************************
+ *  NODES_ADDED        -- new node and its ancestors
+ *  NODES_UPDATED      -- node whose own fields or descriptors have been changed (its subtree and ancestors if active flipped),
+ *                        or ancestors whose subs and aggregates have changed by a deletion
+ *  NODES_RELOCATED    -- relocated subtree, its old ancestors and its new ones (moves within the parent: node and parent)
+ *  NODES_DELETED      -- all nodes of the deleted subtree (and only them: the ancestors get NODES_UPDATED)
+ *  LANGUAGES_CHANGED  -- languages have been changed: descriptors of all nodes may be affected (nodeIds is empty)
+ *  *****************************************************************
+ */
+
+public record CatalogEvent(Type type, List<Long> nodeIds) {
+
+    public enum Type { NODES_ADDED, NODES_UPDATED, NODES_RELOCATED, NODES_DELETED, LANGUAGES_CHANGED }
+
+    public static CatalogEvent of (Type type, Long... nodeIds) {
+        return new CatalogEvent(type, Arrays.stream(nodeIds).filter(Objects::nonNull).distinct().toList());
+    }
+
+}
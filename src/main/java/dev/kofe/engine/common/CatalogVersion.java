@@ -0,0 +1,92 @@
+package dev.kofe.engine.common;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.WebRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ *  Catalog version for HTTP caching (ETag / Last-Modified)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  catalog    -- bumped by every CatalogEvent, i.e. by every write of the node, language and descriptor services
+ *  languages  -- bumped by LANGUAGES_CHANGED only
+ *  nodes      -- node ID -> stamp of the last event listing the node (a node without a stamp has the initial one);
+ *                only for reads of the node's own fields and descriptors: a NodeDto with its parent and subs
+ *                depends on other nodes and is tagged with the catalog version
+ *  deleted    -- bumped by NODES_DELETED: the stamps of the deleted subtree are dropped (the map holds live nodes only)
+ *                and this one is the floor of every node without a stamp, so a tag of a deleted node never matches
+ *
+ *  ETag is "epoch-version": the epoch (start time) keeps tags of the previous run from matching.
+ *  Stamps are bumped twice: when the event is published (inside the transaction) and after the commit,
+ *  so a response read while the transaction was in flight never keeps the tag of the committed data.
+ *  A per-node stamp also follows LANGUAGES_CHANGED (the descriptors of every node may be affected).
+ *  *****************************************************************
+ */
+
+@Component
+public class CatalogVersion {
+
+    private record Stamp(long version, long modifiedMillis) { }
+
+    private final long epoch = System.currentTimeMillis();
+    private final Stamp initial = new Stamp(0, epoch);
+    private volatile Stamp catalog = initial;
+    private volatile Stamp languages = initial;
+    private volatile Stamp deleted = initial;
+    private final Map<Long, Stamp> nodes = new ConcurrentHashMap<>();
+    private long version;
+
+    public long current () {
+        return catalog.version();
+    }
+
+    @EventListener
+    public void onCatalogEventPublished (CatalogEvent event) {
+        bump(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEventCommitted (CatalogEvent event) {
+        bump(event);
+    }
+
+    // true if the client has the current version of the whole catalog: 304 is already set
+    public boolean checkNotModified (WebRequest request) {
+        return check(request, catalog);
+    }
+
+    public boolean checkLanguagesNotModified (WebRequest request) {
+        return check(request, languages);
+    }
+
+    // own fields and descriptors of the node only
+    public boolean checkNodeNotModified (WebRequest request, long nodeId) {
+        Stamp node = nodes.getOrDefault(nodeId, deleted);
+        Stamp languagesStamp = languages;
+        return check(request, node.version() >= languagesStamp.version() ? node : languagesStamp);
+    }
+
+    private synchronized void bump (CatalogEvent event) {
+        Stamp stamp = new Stamp(++version, System.currentTimeMillis());
+        if (event.type() == CatalogEvent.Type.LANGUAGES_CHANGED) {
+            languages = stamp;
+        }
+        if (event.type() == CatalogEvent.Type.NODES_DELETED) {
+            deleted = stamp;
+            nodes.keySet().removeAll(event.nodeIds());
+        } else {
+            for (Long nodeId : event.nodeIds()) {
+                nodes.put(nodeId, stamp);
+            }
+        }
+        catalog = stamp;
+    }
+
+    private boolean check (WebRequest request, Stamp stamp) {
+        return request.checkNotModified("\"" + epoch + "-" + stamp.version() + "\"", stamp.modifiedMillis());
+    }
+
+}
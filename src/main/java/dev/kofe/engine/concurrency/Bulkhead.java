@@ -0,0 +1,22 @@
+package dev.kofe.engine.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/*
+ *  Puts the endpoint into a named bulkhead: at most 'engine.bulkhead.<name>.permits' requests
+ *  of the bulkhead run at once, the others get 503 (see BulkheadInterceptor); no limit unless the property is set
+ *  [Kofe Simple Engine]
+ */
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkhead {
+
+    String ADMIN = "admin";         // heavy writes: languages, import, batch update, relocation, subtree delete
+    String BULK_READ = "bulk-read"; // whole-catalog reads and exports
+
+    String value ();
+}
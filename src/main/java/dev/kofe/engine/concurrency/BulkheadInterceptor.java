@@ -0,0 +1,83 @@
+package dev.kofe.engine.concurrency;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Per-endpoint bulkheads
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Endpoints annotated with @Bulkhead("name") share a semaphore of 'engine.bulkhead.<name>.permits'
+ *  (opt-in: 0 = no limit, the default). A request waits up to 'engine.bulkhead.wait-ms'
+ *  (0 by default) for a permit, then gets 503 with Retry-After; endpoints without the annotation
+ *  (storefront reads) are never limited, so heavy operations can not take all the request threads.
+ *  The permit is kept across the async dispatch of streamed responses.
+ *  *****************************************************************
+ */
+
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final Environment environment;
+    private final long waitMs;
+    private final Map<String, Semaphore> semaphores = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(BulkheadInterceptor.class);
+
+    public BulkheadInterceptor (Environment environment) {
+        this.environment = environment;
+        this.waitMs = environment.getProperty("engine.bulkhead.wait-ms", Long.class, 0L);
+    }
+
+    @Override
+    public boolean preHandle (HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        Bulkhead bulkhead = handlerMethod.getMethodAnnotation(Bulkhead.class);
+        if (bulkhead == null) {
+            return true;
+        }
+        Semaphore semaphore = semaphores.computeIfAbsent(bulkhead.value(), this::createSemaphore);
+        if (semaphore == null) {
+            return true;
+        }
+        if (!semaphore.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+            logger.warn("Bulkhead " + bulkhead.value() + " is full: " + request.getMethod() + " " + request.getRequestURI() + " rejected");
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, semaphore);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion (HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object semaphore = request.getAttribute(PERMIT_ATTRIBUTE);
+        if (semaphore != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            ((Semaphore) semaphore).release();
+        }
+    }
+
+    // null = no limit
+    private Semaphore createSemaphore (String name) {
+        int permits = environment.getProperty("engine.bulkhead." + name + ".permits", Integer.class, 0);
+        return (permits > 0) ? new Semaphore(permits) : null;
+    }
+
+}
@@ -0,0 +1,87 @@
+package dev.kofe.engine.concurrency;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import javax.sql.DataSource;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Request execution and concurrency limits
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  engine.concurrency.virtual-threads=true     -- Tomcat runs every request on a new virtual thread
+ *                                                 (JDK 21+; looked up at runtime, the platform pool is kept on older JDKs)
+ *  engine.concurrency.jdbc-permits=N           -- at most N JDBC connections out at once (0 = off, default);
+ *                                                 'engine.concurrency.jdbc-timeout-ms' to wait for one (5000)
+ *  @Bulkhead endpoints                         -- see BulkheadInterceptor
+ *  *****************************************************************
+ */
+
+@Configuration
+public class ConcurrencyConfig implements WebMvcConfigurer {
+
+    private final Environment environment;
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyConfig.class);
+
+    public ConcurrencyConfig (Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors (InterceptorRegistry registry) {
+        registry.addInterceptor(new BulkheadInterceptor(environment));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "engine.concurrency.virtual-threads", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer () {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        return (protocolHandler) -> {
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Requests are executed on virtual threads");
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor (Environment environment) {
+        int permits = environment.getProperty("engine.concurrency.jdbc-permits", Integer.class, 0);
+        long timeoutMs = environment.getProperty("engine.concurrency.jdbc-timeout-ms", Long.class, 5000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization (Object bean, String beanName) {
+                if (permits > 0 && bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    logger.info("JDBC connections are limited to " + permits + " at once");
+                    return new BoundedDataSource(dataSource, permits, timeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() without a compile-time dependency on JDK 21
+    private static ExecutorService newVirtualThreadPerTaskExecutor () {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            logger.warn("Virtual threads are not available on this JVM, the platform thread pool is kept");
+            return null;
+        }
+    }
+
+}
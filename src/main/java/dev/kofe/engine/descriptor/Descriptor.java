@@ -1,12 +1,17 @@
 package dev.kofe.engine.descriptor;
 
 import dev.kofe.engine.language.Language;
+import dev.kofe.engine.metrics.EntityLoadCounter;
 import dev.kofe.engine.node.Node;
 import jakarta.persistence.*;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
+import java.util.Objects;
 
 @Entity
-@Data
+@EntityListeners(EntityLoadCounter.class)
+@Getter
+@Setter
 public class Descriptor {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -22,4 +27,27 @@ public class Descriptor {
 
     @ManyToOne(fetch = FetchType.LAZY)
     private Node node;
+
+    // identity is the database ID (see Node)
+    @Override
+    public boolean equals (Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Descriptor other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode () {
+        return Objects.hashCode(id);
+    }
+
+    // own fields only: the node and the language are not loaded for printing
+    @Override
+    public String toString () {
+        return new StringBuilder(64)
+                .append("Descriptor { id=").append(id)
+                .append(", title=").append(title)
+                .append(" }").toString();
+    }
 }
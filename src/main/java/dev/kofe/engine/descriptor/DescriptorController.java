@@ -1,5 +1,8 @@
 package dev.kofe.engine.descriptor;
 
+import dev.kofe.engine.cache.DescriptorSnapshot;
+import dev.kofe.engine.common.CatalogVersion;
+import dev.kofe.engine.concurrency.Bulkhead;
 import dev.kofe.engine.mapper.Mapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import java.util.List;
 
 /*      Descriptors API
@@ -20,8 +24,16 @@ import java.util.List;
  *      GET /descriptors                    :   get all descriptors
  *                                          :   200 = ok
  *
- *      GET /descriptors/node/{id}          :   get descriptors by node_id
+ *      GET /descriptors/node/{id}          :   get descriptors by node_id (served from the catalog cache)
  *                                          :   200 = ok
+ *
+ *      GET /descriptors/page?after=ID&limit=N  :   get a page of descriptors ordered by ID (keyset pagination)
+ *                                              :   after (optional, 0 by default) = ID of the last descriptor of the previous page
+ *                                              :   limit (optional, 100 by default, 500 max) = page size
+ *                                              :   200 = ok
+ *
+ *      GET responses carry a strong ETag and Last-Modified of the catalog version (see CatalogVersion),
+ *      GET /descriptors/node/{id} - of the version of the node: 304 is answered before the database is touched.
  */
 
 @RestController
@@ -30,17 +42,25 @@ public class DescriptorController {
 
     private final DescriptorService descriptorService;
     private final Mapper mapper;
+    private final CatalogVersion catalogVersion;
     private static final Logger logger = LoggerFactory.getLogger(DescriptorController.class);
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     public DescriptorController (DescriptorService descriptorService,
-                                 Mapper mapper) {
+                                 Mapper mapper,
+                                 CatalogVersion catalogVersion) {
         this.descriptorService = descriptorService;
         this.mapper = mapper;
+        this.catalogVersion = catalogVersion;
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<DescriptorDto> getDescriptorById (@PathVariable long id) {
+    public ResponseEntity<DescriptorDto> getDescriptorById (@PathVariable long id, WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         Descriptor descriptor = descriptorService.findDescriptorById(id);
         if (descriptor != null) {
             return new ResponseEntity<>(mapper.convertToDescriptorDto(descriptor), HttpStatus.OK);
@@ -50,16 +70,36 @@ public class DescriptorController {
         }
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<List<DescriptorDto>> getDescriptorsPage (@RequestParam(defaultValue = "0") long after,
+                                                                   @RequestParam(defaultValue = "100") int limit,
+                                                                   WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Descriptor> descriptors = descriptorService.findDescriptorsPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return new ResponseEntity<>(
+                Mapper.convertList(descriptors, (item) -> mapper.convertToDescriptorDto(item)),
+                HttpStatus.OK);
+    }
+
     @GetMapping("/node/{id}")
-    public ResponseEntity<List<DescriptorDto>> getAllDescriptorsByNodeId (@PathVariable long id) {
-        List<Descriptor> descriptors = descriptorService.findAllDescriptorsByNodeId(id);
+    public ResponseEntity<List<DescriptorDto>> getAllDescriptorsByNodeId (@PathVariable long id, WebRequest webRequest) {
+        if (catalogVersion.checkNodeNotModified(webRequest, id)) {
+            return null;
+        }
+        List<DescriptorSnapshot> descriptors = descriptorService.findDescriptorSnapshotsByNodeId(id);
         return new ResponseEntity<>(
                 Mapper.convertList(descriptors, (item) -> mapper.convertToDescriptorDto(item)),
                 HttpStatus.OK);
     }
 
     @GetMapping("")
-    public ResponseEntity<List<DescriptorDto>> getAllDescriptors () {
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<DescriptorDto>> getAllDescriptors (WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         List<Descriptor> descriptors = descriptorService.findAllDescriptors();
         return new ResponseEntity<>(
                 Mapper.convertList(descriptors, (item) -> mapper.convertToDescriptorDto(item)),
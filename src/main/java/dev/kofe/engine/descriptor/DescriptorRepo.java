@@ -1,8 +1,55 @@
 package dev.kofe.engine.descriptor;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
 import java.util.List;
 
 public interface DescriptorRepo extends JpaRepository<Descriptor, Long> {
     List<Descriptor> findAllByNode_Id(long id);
+    long countByLanguage_Id(long languageId);
+
+    // removal of a language in chunks
+    @Query("select d.id from Descriptor d where d.language.id = :languageId and d.id > :after order by d.id")
+    List<Long> findIdsByLanguageAfter (@Param("languageId") long languageId, @Param("after") long after, Pageable pageable);
+
+    @Query("select distinct d.node.id from Descriptor d where d.id in :ids")
+    List<Long> findNodeIdsByIds (@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Descriptor d where d.language.id = :languageId")
+    int deleteAllByLanguageId (@Param("languageId") long languageId);
+
+    // keyset pagination on ID
+    @EntityGraph(attributePaths = "language")
+    List<Descriptor> findByIdGreaterThanOrderByIdAsc (long after, Pageable pageable);
+
+    // texts projection (in-memory indexes)
+    String TEXT_SELECT = "select new dev.kofe.engine.descriptor.DescriptorText(d.id, d.node.id, d.language.id, d.title, d.brief) "
+            + "from Descriptor d ";
+
+    @Query(TEXT_SELECT + "where d.id > :after order by d.id")
+    List<DescriptorText> findTextsAfter (@Param("after") long after, Pageable pageable);
+
+    @Query(TEXT_SELECT + "where d.node.id in :nodeIds")
+    List<DescriptorText> findTextsByNodeIds (@Param("nodeIds") Collection<Long> nodeIds);
+
+    @Query(TEXT_SELECT + "where d.language.id = :languageId and d.id > :after order by d.id")
+    List<DescriptorText> findTextsByLanguageAfter (@Param("languageId") long languageId, @Param("after") long after,
+                                                   Pageable pageable);
+
+    @Query(TEXT_SELECT + "where d.language.id = :languageId and d.node.id in :nodeIds order by d.node.id")
+    List<DescriptorText> findTextsByLanguageAndNodeIds (@Param("languageId") long languageId,
+                                                        @Param("nodeIds") Collection<Long> nodeIds);
+
+    @Query("select d from Descriptor d join fetch d.language where d.node.id in :nodeIds")
+    List<Descriptor> findAllByNodeIds (@Param("nodeIds") Collection<Long> nodeIds);
+
+    @Query("select d from Descriptor d join fetch d.language l where d.node.id in :nodeIds and l.code = :code")
+    List<Descriptor> findAllByNodeIdsAndLanguageCode (@Param("nodeIds") Collection<Long> nodeIds,
+                                                      @Param("code") String code);
 }
@@ -1,11 +1,17 @@
 package dev.kofe.engine.descriptor;
 
+import dev.kofe.engine.cache.DescriptorSnapshot;
 import dev.kofe.engine.language.Language;
 import java.util.List;
 
 public interface DescriptorService {
     Descriptor createNewDescriptorForLanguage (Language language);
+    int createEmptyDescriptors (Long languageId, List<Long> nodeIds);
     Descriptor findDescriptorById (Long id);
+    List<Descriptor> findDescriptorsByIds (List<Long> ids);
     List<Descriptor> findAllDescriptors ();
+    List<Descriptor> findDescriptorsPage (long after, int limit);
     List<Descriptor> findAllDescriptorsByNodeId (Long id);
+    List<DescriptorSnapshot> findDescriptorSnapshotsByNodeId (long id);
+    List<Descriptor> findAllDescriptorsByNodeIds (List<Long> ids, String languageCode);
 }
@@ -1,37 +1,101 @@
 package dev.kofe.engine.descriptor;
 
+import dev.kofe.engine.cache.CatalogCache;
+import dev.kofe.engine.cache.DescriptorSnapshot;
 import dev.kofe.engine.language.Language;
+import dev.kofe.engine.node.Node;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class DescriptorServiceImpl implements DescriptorService {
 
     private final DescriptorRepo descriptorRepo;
+    private final CatalogCache catalogCache;
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${engine.batch.size:500}") private int batchSize;
 
     @Autowired
-    public DescriptorServiceImpl(DescriptorRepo descriptorRepo) {
+    public DescriptorServiceImpl(DescriptorRepo descriptorRepo, CatalogCache catalogCache) {
         this.descriptorRepo = descriptorRepo;
+        this.catalogCache = catalogCache;
     }
 
     @Transactional
     public Descriptor createNewDescriptorForLanguage (Language language) {
         Descriptor descriptor = new Descriptor();
+        descriptor.setLanguage(language); // owning side only: the (possibly huge) language.descriptors is not touched
         descriptorRepo.save(descriptor);
-        language.addDescriptor(descriptor);
         return descriptor;
     }
 
+    /*
+     *  Creates an empty descriptor of the language for each of the nodes, inserted as one JDBC batch
+     *  (IDs come from the pooled sequence). Joins the caller's transaction: a language job commits
+     *  every chunk together with its checkpoint.
+     */
+    @Transactional
+    public int createEmptyDescriptors (Long languageId, List<Long> nodeIds) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        Language languageRef = entityManager.getReference(Language.class, languageId);
+        for (Long nodeId : nodeIds) {
+            Descriptor descriptor = new Descriptor();
+            descriptor.setLanguage(languageRef);
+            descriptor.setNode(entityManager.getReference(Node.class, nodeId));
+            entityManager.persist(descriptor);
+        }
+        entityManager.flush();
+
+        return nodeIds.size();
+    }
+
     public Descriptor findDescriptorById (Long id) {
         return descriptorRepo.findById(id).orElse(null);
     }
+    // one IN query per 'engine.batch.size' IDs
+    public List<Descriptor> findDescriptorsByIds (List<Long> ids) {
+        List<Descriptor> descriptors = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            descriptors.addAll(descriptorRepo.findAllById(ids.subList(from, Math.min(from + batchSize, ids.size()))));
+        }
+
+        return descriptors;
+    }
     public List<Descriptor> findAllDescriptors () {
         return descriptorRepo.findAll();
     }
+    // keyset page: descriptors with ID greater than 'after', ordered by ID
+    public List<Descriptor> findDescriptorsPage (long after, int limit) {
+        return descriptorRepo.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+    }
     public List<Descriptor> findAllDescriptorsByNodeId (Long id) {
         return descriptorRepo.findAllByNode_Id(id);
     }
+    public List<DescriptorSnapshot> findDescriptorSnapshotsByNodeId (long id) {
+        return catalogCache.findDescriptorSnapshotsByNodeId(id);
+    }
+
+    // one IN query (language fetched) per 'engine.batch.size' node IDs; languageCode == null means all languages
+    public List<Descriptor> findAllDescriptorsByNodeIds (List<Long> ids, String languageCode) {
+        List<Descriptor> descriptors = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            descriptors.addAll(languageCode == null
+                    ? descriptorRepo.findAllByNodeIds(chunk)
+                    : descriptorRepo.findAllByNodeIdsAndLanguageCode(chunk, languageCode));
+        }
+
+        return descriptors;
+    }
 
 }
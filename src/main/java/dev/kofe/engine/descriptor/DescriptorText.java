@@ -0,0 +1,8 @@
+package dev.kofe.engine.descriptor;
+
+/*
+ *  Texts of the descriptor selected without loading entities (source for in-memory indexes)
+ *  [Kofe Simple Engine]
+ */
+
+public record DescriptorText(Long id, Long nodeId, Long languageId, String title, String brief) { }
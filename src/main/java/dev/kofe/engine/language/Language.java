@@ -1,10 +1,14 @@
 package dev.kofe.engine.language;
 
 import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.metrics.EntityLoadCounter;
 import jakarta.persistence.*;
-import lombok.Data;
-import java.util.ArrayList;
-import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
 
 /*
  *  Language model
@@ -17,11 +21,15 @@ import java.util.List;
  *  initial   -- initial language is a basic language (first language in the system); can not be deleted
  *  bydefault -- flag: language set as a default language to use
  *  active    -- is an active flag
+ *
+ *  identity is the database ID (see Node); the descriptors collection is never loaded implicitly
  *  *****************************************************************
  */
 
 @Entity
-@Data
+@EntityListeners(EntityLoadCounter.class)
+@Getter
+@Setter
 public class Language {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE)
@@ -36,18 +44,46 @@ public class Language {
     private boolean active = true;
 
     @OneToMany (mappedBy = "language", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Descriptor> descriptors = new ArrayList<>();
+    private Set<Descriptor> descriptors = new LinkedHashSet<>();
 
     @Transient private boolean done = true; // service field; done = true in the case of a fully successful operation
     @Transient private String msg; // service field; for the message
+    @Transient private Long jobId; // service field; background job started for the language
 
     public void addDescriptor (Descriptor descriptor) {
-        this.descriptors.add(descriptor);
+        if (Hibernate.isInitialized(this.descriptors)) {
+            this.descriptors.add(descriptor);
+        }
         descriptor.setLanguage(this);
     }
 
     public void removeDescriptor (Descriptor descriptor) {
-        this.descriptors.remove(descriptor);
+        if (Hibernate.isInitialized(this.descriptors)) {
+            this.descriptors.remove(descriptor);
+        }
         descriptor.setLanguage(null);
     }
+
+    @Override
+    public boolean equals (Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Language other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode () {
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString () {
+        return new StringBuilder(64)
+                .append("Language { id=").append(id)
+                .append(", code=").append(code)
+                .append(", active=").append(active)
+                .append(", bydefault=").append(bydefault)
+                .append(" }").toString();
+    }
 }
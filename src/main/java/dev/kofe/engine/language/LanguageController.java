@@ -1,10 +1,13 @@
 package dev.kofe.engine.language;
 
+import dev.kofe.engine.common.CatalogVersion;
+import dev.kofe.engine.concurrency.Bulkhead;
 import dev.kofe.engine.mapper.Mapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,6 +32,9 @@ import java.util.List;
  *                                          :   400 = Initial language has not been created: the Code is required
  *
  *      POST /languages                     :   add new language
+ *                                          :   the language is saved as inactive, its descriptors are created
+ *                                          :   by a background job (see jobId, GET /languages/jobs/{jobId});
+ *                                          :   the requested active status is set when the job is done
  *                                          :   200 = ok
  *                                          :   204 = New language has not been added
  *                                          :   400 = New language has not been added: the Code is required
@@ -41,6 +47,7 @@ import java.util.List;
  *      PUT  /languages/activate/{id}       :   activate language by ID (set active status to as true)
  *                                          :   200 = ok
  *                                          :   404 = Language not found
+ *                                          :   409 = The language has an unfinished job (see jobId)
  *
  *      PUT  /languages/deactivate/{id}     :   de-activate language by ID (set active status to as false)
  *                                          :   It is not possible to de-activate a lone active language
@@ -48,11 +55,13 @@ import java.util.List;
  *                                          :   It is not possible to de-activate a default language
  *                                          :   200 = ok
  *                                          :   404 = Language not found
+ *                                          :   409 = The language has an unfinished job (see jobId)
  *
  *      PUT  /languages/default/{id}        :   set language as default by ID
  *                                          :   It is not possible to set inactive language as default language
  *                                          :   200 = ok
  *                                          :   404 = Language not found
+ *                                          :   409 = The language has an unfinished job (see jobId)
  *
  *      GET  /languages/default             :   get default language
  *                                          :   200 = ok
@@ -69,8 +78,12 @@ import java.util.List;
  *                                          :   404 = Language not found
  *
  *      DELETE /language/{id}               :   delete language by ID
- *                                          :   400 = Language with is initial language and can not be deleted
+ *                                          :   the language is deactivated at once and removed by a background job
+ *                                          :   JSON: the job (see Language jobs API)
+ *                                          :   202 = accepted
+ *                                          :   400 = Language with is initial or default language and can not be deleted
  *                                          :   404 = Language not found
+ *                                          :   409 = Another job of the language is not finished yet
  *
  *      Important note. Initialization (operation for creation of the initial language: POST /languages/init)
  *                      is a crucial operation for the whole system.
@@ -78,6 +91,12 @@ import java.util.List;
  *                      the initial language is an "entering point" for the system functionality.
  *                      The initial language (flag 'initial' = true) can not be deleted.
  *
+ *      GET responses carry a strong ETag and Last-Modified of the languages version (see CatalogVersion):
+ *      If-None-Match / If-Modified-Since are answered with 304.
+ *
+ *      Init, add and delete run in the admin bulkhead: when 'engine.bulkhead.admin.permits' is set,
+ *      503 (with Retry-After) when it is full.
+ *
  *      Note about Active and Bydefault cases.  Language may have active status (flag 'active' = true)
  *                                              and default status (flag 'bydefault' = true).
  *                                              Default language have to be active.
@@ -94,10 +113,11 @@ import java.util.List;
  *                  "active": true,
  *              }
  *
- *      JSON response contains two additional service fields (transient):
+ *      JSON response contains additional service fields (transient):
  *                      done = true    :  all asked data is provided
  *                      done = false   :  data is not provided fully
  *                      msg  = message :  message about result of the request
+ *                      jobId = N      :  background job started for the language (or null)
  */
 
 @RestController
@@ -106,16 +126,19 @@ public class LanguageController {
 
     private final LanguageService languageService;
     private final Mapper mapper;
+    private final CatalogVersion catalogVersion;
 
     private static final Logger logger = LoggerFactory.getLogger(LanguageController.class);
 
     @Autowired
-    public LanguageController (LanguageService languageService, Mapper mapper) {
+    public LanguageController (LanguageService languageService, Mapper mapper, CatalogVersion catalogVersion) {
         this.languageService = languageService;
         this.mapper = mapper;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping("/init")
+    @Bulkhead(Bulkhead.ADMIN)
     public ResponseEntity<LanguageDto> createNewLanguage (@RequestBody(required = false) LanguageDto languageDto) {
         if (languageDto != null && languageDto.getCode() == null) {
             logger.error("Initial language has not been created: the Code is required");
@@ -131,6 +154,7 @@ public class LanguageController {
     }
 
     @PostMapping("")
+    @Bulkhead(Bulkhead.ADMIN)
     public ResponseEntity<LanguageDto> addNewLanguage (@RequestBody(required = true) LanguageDto languageDto) {
         if (languageDto.getCode() == null) {
             logger.error("New language has not been added: the Code is required");
@@ -164,7 +188,7 @@ public class LanguageController {
     public ResponseEntity<LanguageDto> activateLanguage (@PathVariable long id) {
         Language language = languageService.setLanguageActiveStatus(id, true);
         if (language != null) {
-            return new ResponseEntity<>(mapper.convertToLanguageDto(language), HttpStatus.OK);
+            return new ResponseEntity<>(mapper.convertToLanguageDto(language), statusOf(language));
         } else {
             logger.error("Language with ID=" + id + " not found");
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -175,7 +199,7 @@ public class LanguageController {
     public ResponseEntity<LanguageDto> deActivateLanguage (@PathVariable long id) {
         Language language = languageService.setLanguageActiveStatus(id, false);
         if (language != null) {
-            return new ResponseEntity<>(mapper.convertToLanguageDto(language), HttpStatus.OK);
+            return new ResponseEntity<>(mapper.convertToLanguageDto(language), statusOf(language));
         } else {
             logger.error("Language with ID=" + id + " not found");
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -186,15 +210,23 @@ public class LanguageController {
     public ResponseEntity<LanguageDto> setDefaultLanguage (@PathVariable long id) {
         Language language = languageService.setDefaultLanguage(id);
         if (language != null) {
-            return new ResponseEntity<>(mapper.convertToLanguageDto(language), HttpStatus.OK);
+            return new ResponseEntity<>(mapper.convertToLanguageDto(language), statusOf(language));
         } else {
             logger.error("Language with ID=" + id + " not found");
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
 
+    // 409 when the language is left as it is because of its unfinished job
+    private static HttpStatus statusOf (Language language) {
+        return (!language.isDone() && language.getJobId() != null) ? HttpStatus.CONFLICT : HttpStatus.OK;
+    }
+
     @GetMapping("/default")
-    public ResponseEntity<LanguageDto> getDefaultLanguage () {
+    public ResponseEntity<LanguageDto> getDefaultLanguage (WebRequest webRequest) {
+        if (catalogVersion.checkLanguagesNotModified(webRequest)) {
+            return null;
+        }
         Language language = languageService.findDefaultLanguage();
         if (language != null) {
             return new ResponseEntity<>(mapper.convertToLanguageDto(language), HttpStatus.OK);
@@ -205,7 +237,10 @@ public class LanguageController {
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<LanguageDto>> getAllActiveLanguages () {
+    public ResponseEntity<List<LanguageDto>> getAllActiveLanguages (WebRequest webRequest) {
+        if (catalogVersion.checkLanguagesNotModified(webRequest)) {
+            return null;
+        }
         List<Language> activeLanguages = languageService.findActiveLanguages();
         return new ResponseEntity<>(
                     Mapper.convertList(activeLanguages, (item) -> mapper.convertToLanguageDto(item)),
@@ -213,7 +248,10 @@ public class LanguageController {
     }
 
     @GetMapping("")
-    public ResponseEntity<List<LanguageDto>> getAllLanguages () {
+    public ResponseEntity<List<LanguageDto>> getAllLanguages (WebRequest webRequest) {
+        if (catalogVersion.checkLanguagesNotModified(webRequest)) {
+            return null;
+        }
         List<Language> activeLanguages = languageService.findAllLanguages();
         return new ResponseEntity<>(
                     Mapper.convertList(activeLanguages, (item) -> mapper.convertToLanguageDto(item)),
@@ -221,7 +259,10 @@ public class LanguageController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<LanguageDto> getLanguageById (@PathVariable long id) {
+    public ResponseEntity<LanguageDto> getLanguageById (@PathVariable long id, WebRequest webRequest) {
+        if (catalogVersion.checkLanguagesNotModified(webRequest)) {
+            return null;
+        }
         Language language = languageService.findLanguageById(id);
         if (language != null) {
             return new ResponseEntity<>(mapper.convertToLanguageDto(language), HttpStatus.OK);
@@ -232,16 +273,21 @@ public class LanguageController {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteLanguageById(@PathVariable long id) {
+    @Bulkhead(Bulkhead.ADMIN)
+    public ResponseEntity<LanguageJobDto> deleteLanguageById(@PathVariable long id) {
         Language language = languageService.findLanguageById(id);
         if (language != null) {
-            if (!language.isInitial()) {
-                languageService.deleteLanguageById(id);
-                return new ResponseEntity<>(HttpStatus.OK);
-            } else {
-                logger.warn("Language with ID=" + id + " is initial language and can not be deleted");
+            if (language.isInitial() || language.isBydefault()) {
+                logger.warn("Language with ID=" + id + " is initial or default language and can not be deleted");
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
+            LanguageJob job = languageService.deleteLanguageById(id);
+            if (job != null) {
+                return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.ACCEPTED);
+            } else {
+                logger.warn("Language with ID=" + id + " has an unfinished job");
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
         } else {
             logger.error("Language with ID=" + id + " not found");
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -23,4 +23,5 @@ public class LanguageDto {
 
     private boolean done = true; // service field (Transient)
     private String msg;   // service field (Transient)
+    private Long jobId;   // service field (Transient)
 }
@@ -0,0 +1,56 @@
+package dev.kofe.engine.language;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.Instant;
+
+/*
+ *  Background job adding or removing a language
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  kind            -- ADD: empty descriptors of the language are created for every node
+ *                     DELETE: descriptors of the language are removed, then the language itself
+ *  status          -- PENDING -> RUNNING -> DONE | CANCELLED | FAILED
+ *  languageId      -- the language (a plain ID: the language is gone when a DELETE job is done)
+ *  activate        -- active status the language gets when its descriptors are complete
+ *  checkpoint      -- last processed node ID (ADD) or descriptor ID (DELETE),
+ *                     committed together with every chunk: an interrupted job goes on from here
+ *  processed/total -- progress (total is counted when the job is created)
+ *  cancelRequested -- the job stops before its next chunk
+ *  *****************************************************************
+ */
+
+@Entity
+@Data
+public class LanguageJob {
+
+    public enum Kind { ADD, DELETE }
+    public enum Status { PENDING, RUNNING, DONE, CANCELLED, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private Kind kind;
+
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    private Long languageId;
+    private String languageCode;
+    private boolean activate;
+
+    private long checkpoint;
+    private long processed;
+    private long total;
+    private boolean cancelRequested;
+
+    private String msg;
+    private Instant createdAt;
+    private Instant finishedAt;
+
+    public boolean isFinished () {
+        return status == Status.DONE || status == Status.CANCELLED || status == Status.FAILED;
+    }
+}
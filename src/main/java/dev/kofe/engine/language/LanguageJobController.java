@@ -0,0 +1,115 @@
+package dev.kofe.engine.language;
+
+import dev.kofe.engine.mapper.Mapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/*      Language jobs API
+ *      [Kofe Simple Engine]
+ *
+ *      GET  /languages/jobs                :   last 100 jobs, newest first
+ *                                          :   200 = ok
+ *
+ *      GET  /languages/jobs/{id}           :   status and progress of the job
+ *                                          :   200 = ok
+ *                                          :   404 = Job not found
+ *
+ *      PUT  /languages/jobs/{id}/cancel    :   cancel the job (it stops before its next chunk)
+ *                                          :   a cancelled addition is followed by a job removing the language,
+ *                                          :   a cancelled deletion - by a job restoring its descriptors
+ *                                          :   200 = ok
+ *                                          :   404 = Job not found
+ *                                          :   409 = Job is already finished
+ *
+ *      POST /languages/jobs/{id}/retry     :   run a failed job again from its checkpoint
+ *                                          :   200 = ok
+ *                                          :   404 = Job not found
+ *                                          :   409 = Job is not failed or another job of the language is not finished (see msg)
+ *
+ *      Jobs are started by POST /languages (ADD) and DELETE /languages/{id} (DELETE).
+ *      Every chunk is committed with the checkpoint of the job: unfinished jobs (those stopped by a shutdown
+ *      included) are resumed on start.
+ *
+ *      JSON:
+ *              {
+ *                  "id": N,
+ *                  "kind": "ADD | DELETE",
+ *                  "status": "PENDING | RUNNING | DONE | CANCELLED | FAILED",
+ *                  "languageId": N,
+ *                  "languageCode": "CODE",
+ *                  "processed": N,
+ *                  "total": N,
+ *                  "msg": "..",
+ *                  "createdAt": "..",
+ *                  "finishedAt": ".."
+ *              }
+ */
+
+@RestController
+@RequestMapping("/languages/jobs")
+public class LanguageJobController {
+
+    private final LanguageJobService languageJobService;
+    private final Mapper mapper;
+
+    private static final Logger logger = LoggerFactory.getLogger(LanguageJobController.class);
+
+    @Autowired
+    public LanguageJobController (LanguageJobService languageJobService, Mapper mapper) {
+        this.languageJobService = languageJobService;
+        this.mapper = mapper;
+    }
+
+    @GetMapping("")
+    public ResponseEntity<List<LanguageJobDto>> getRecentJobs () {
+        return new ResponseEntity<>(
+                    Mapper.convertList(languageJobService.findRecentJobs(), (item) -> mapper.convertToLanguageJobDto(item)),
+                    HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<LanguageJobDto> getJobById (@PathVariable long id) {
+        LanguageJob job = languageJobService.findJobById(id);
+        if (job != null) {
+            return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.OK);
+        } else {
+            logger.error("Language job with ID=" + id + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @PutMapping("/{id}/cancel")
+    public ResponseEntity<LanguageJobDto> cancelJob (@PathVariable long id) {
+        LanguageJob job = languageJobService.requestCancel(id);
+        if (job == null) {
+            logger.error("Language job with ID=" + id + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (job.isFinished()) {
+            logger.warn("Language job with ID=" + id + " is already finished");
+            return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.OK);
+    }
+
+    @PostMapping("/{id}/retry")
+    public ResponseEntity<LanguageJobDto> retryJob (@PathVariable long id) {
+        LanguageJob job = languageJobService.retry(id);
+        if (job == null) {
+            logger.error("Language job with ID=" + id + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (job.getStatus() != LanguageJob.Status.PENDING) {
+            logger.warn("Language job with ID=" + id + " has not been retried: " + job.getMsg());
+            return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(mapper.convertToLanguageJobDto(job), HttpStatus.OK);
+    }
+
+}
@@ -0,0 +1,14 @@
+package dev.kofe.engine.language;
+
+import java.time.Instant;
+
+public record LanguageJobDto(Long id,
+                             LanguageJob.Kind kind,
+                             LanguageJob.Status status,
+                             Long languageId,
+                             String languageCode,
+                             long processed,
+                             long total,
+                             String msg,
+                             Instant createdAt,
+                             Instant finishedAt) { }
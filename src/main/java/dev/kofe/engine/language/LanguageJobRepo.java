@@ -0,0 +1,12 @@
+package dev.kofe.engine.language;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
+import java.util.List;
+
+public interface LanguageJobRepo extends JpaRepository<LanguageJob, Long> {
+    List<LanguageJob> findByStatusInOrderByIdAsc(Collection<LanguageJob.Status> statuses);
+    List<LanguageJob> findTop100ByOrderByIdDesc();
+    boolean existsByLanguageIdAndStatusIn(Long languageId, Collection<LanguageJob.Status> statuses);
+    LanguageJob findFirstByLanguageIdAndStatusInOrderByIdAsc(Long languageId, Collection<LanguageJob.Status> statuses);
+}
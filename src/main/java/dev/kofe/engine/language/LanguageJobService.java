@@ -0,0 +1,313 @@
+package dev.kofe.engine.language;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.descriptor.DescriptorService;
+import dev.kofe.engine.node.NodeRepo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Runner of the language jobs
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Jobs run one by one on a background thread. Every chunk of 'engine.batch.size' rows
+ *  is committed in its own transaction together with the checkpoint and progress of the job,
+ *  so a job stopped by a shutdown or a crash is resumed from its checkpoint on the next start:
+ *  an error caused by the shutdown (interrupt of the runner) leaves the job RUNNING.
+ *  A FAILED job can be retried from its checkpoint (retry).
+ *
+ *  ADD     -- chunks of nodes still without a descriptor of the language get empty descriptors
+ *             (nodes added meanwhile already have one and are skipped);
+ *             when no such node is left the language gets its requested active status
+ *  DELETE  -- the language is inactive while its descriptors are removed by chunks of IDs;
+ *             the rest of the descriptors and the language row go in the last transaction
+ *
+ *  Every chunk publishes NODES_UPDATED for the nodes whose descriptors it has created or removed,
+ *  so the HTTP validators (CatalogVersion), caches and indexes follow the job chunk by chunk.
+ *
+ *  Cancellation is checked before every chunk. A cancelled ADD leaves a half-expanded language,
+ *  so a DELETE job is queued to remove it; a cancelled DELETE queues an ADD job restoring
+ *  the missing descriptors and the active status of the language.
+ *  *****************************************************************
+ */
+
+@Service
+public class LanguageJobService {
+
+    static final Set<LanguageJob.Status> UNFINISHED = EnumSet.of(LanguageJob.Status.PENDING, LanguageJob.Status.RUNNING);
+
+    private final LanguageJobRepo jobRepo;
+    private final LanguageRepo languageRepo;
+    private final NodeRepo nodeRepo;
+    private final DescriptorRepo descriptorRepo;
+    private final DescriptorService descriptorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor();
+    private volatile boolean stopping;
+    private static final Logger logger = LoggerFactory.getLogger(LanguageJobService.class);
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+
+    @Autowired
+    public LanguageJobService (LanguageJobRepo jobRepo,
+                               LanguageRepo languageRepo,
+                               NodeRepo nodeRepo,
+                               DescriptorRepo descriptorRepo,
+                               DescriptorService descriptorService,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.jobRepo = jobRepo;
+        this.languageRepo = languageRepo;
+        this.nodeRepo = nodeRepo;
+        this.descriptorRepo = descriptorRepo;
+        this.descriptorService = descriptorService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown () {
+        // a running job stops after its current chunk (or fails in it and is rolled back) and is resumed on the next start
+        stopping = true;
+        runner.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs () {
+        for (LanguageJob job : jobRepo.findByStatusInOrderByIdAsc(UNFINISHED)) {
+            logger.info("Language job " + job.getId() + " (" + job.getKind() + " " + job.getLanguageCode()
+                    + ") is resumed from the checkpoint " + job.getCheckpoint());
+            submit(job.getId());
+        }
+    }
+
+    public boolean hasUnfinishedJob (Long languageId) {
+        return jobRepo.existsByLanguageIdAndStatusIn(languageId, UNFINISHED);
+    }
+
+    // null if all jobs of the language are finished
+    public LanguageJob findUnfinishedJob (Long languageId) {
+        return jobRepo.findFirstByLanguageIdAndStatusInOrderByIdAsc(languageId, UNFINISHED);
+    }
+
+    /*
+     *  Creates the job in the caller's transaction; the job is started after the commit.
+     *  activate: active status of the language when the job is done (ADD) or cancelled (DELETE)
+     */
+    public LanguageJob createJob (LanguageJob.Kind kind, Language language, boolean activate) {
+        LanguageJob job = new LanguageJob();
+        job.setKind(kind);
+        job.setLanguageId(language.getId());
+        job.setLanguageCode(language.getCode());
+        job.setActivate(activate);
+        job.setTotal(kind == LanguageJob.Kind.ADD ? nodeRepo.count() : descriptorRepo.countByLanguage_Id(language.getId()));
+        job.setCreatedAt(Instant.now());
+        job = jobRepo.save(job);
+
+        Long jobId = job.getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit () {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+
+        return job;
+    }
+
+    public LanguageJob findJobById (Long id) {
+        return jobRepo.findById(id).orElse(null);
+    }
+
+    public List<LanguageJob> findRecentJobs () {
+        return jobRepo.findTop100ByOrderByIdDesc();
+    }
+
+    // null if the job is not found; the job stops before its next chunk
+    public LanguageJob requestCancel (Long id) {
+        return transactionTemplate.execute((status) -> {
+            LanguageJob job = jobRepo.findById(id).orElse(null);
+            if (job != null) {
+                if (job.isFinished()) {
+                    job.setMsg("Job is already finished: " + job.getStatus());
+                } else {
+                    job.setCancelRequested(true);
+                }
+            }
+            return job;
+        });
+    }
+
+    /*
+     *  Puts a FAILED job back to PENDING and runs it again from its checkpoint.
+     *  null if the job is not found; the job is returned unchanged (with a message) if it is not FAILED
+     *  or another job of the language has been started since
+     */
+    public LanguageJob retry (Long id) {
+        LanguageJob retried = transactionTemplate.execute((status) -> {
+            LanguageJob job = jobRepo.findById(id).orElse(null);
+            if (job == null) {
+                return null;
+            }
+            if (job.getStatus() != LanguageJob.Status.FAILED) {
+                job.setMsg("Only a failed job can be retried: " + job.getStatus());
+            } else if (hasUnfinishedJob(job.getLanguageId())) {
+                job.setMsg("Another job of the language " + job.getLanguageCode() + " is not finished");
+            } else {
+                job.setStatus(LanguageJob.Status.PENDING);
+                job.setFinishedAt(null);
+                job.setMsg("Job is retried from the checkpoint " + job.getCheckpoint());
+            }
+            return job;
+        });
+        if (retried != null && retried.getStatus() == LanguageJob.Status.PENDING) {
+            logger.info("Language job " + id + ": " + retried.getMsg());
+            submit(id);
+        }
+        return retried;
+    }
+
+    private void submit (Long jobId) {
+        runner.submit(() -> run(jobId));
+    }
+
+    private void run (Long jobId) {
+        try {
+            boolean more = true;
+            while (more && !Thread.currentThread().isInterrupted()) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute((status) -> step(jobId)));
+            }
+        } catch (RuntimeException e) {
+            if (stopping || Thread.currentThread().isInterrupted() || isCausedByInterrupt(e)) {
+                // the chunk has been rolled back, the job stays RUNNING and goes on from its checkpoint on the next start
+                logger.info("Language job " + jobId + " has been stopped by the shutdown: " + e.getMessage());
+                return;
+            }
+            logger.error("Language job " + jobId + " failed", e);
+            transactionTemplate.executeWithoutResult((status) -> jobRepo.findById(jobId).ifPresent((job) -> {
+                job.setStatus(LanguageJob.Status.FAILED);
+                job.setMsg("Job failed at the checkpoint " + job.getCheckpoint() + ": " + e.getMessage());
+                job.setFinishedAt(Instant.now());
+            }));
+        }
+    }
+
+    private static boolean isCausedByInterrupt (Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof InterruptedIOException
+                    || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // one chunk, committed together with the checkpoint; false when the job is over
+    private boolean step (Long jobId) {
+        LanguageJob job = jobRepo.findById(jobId).orElse(null);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        if (job.isCancelRequested()) {
+            cancel(job);
+            return false;
+        }
+        job.setStatus(LanguageJob.Status.RUNNING);
+        boolean more = (job.getKind() == LanguageJob.Kind.ADD) ? expandChunk(job) : deleteChunk(job);
+        if (!more) {
+            finish(job);
+        }
+        return more;
+    }
+
+    private boolean expandChunk (LanguageJob job) {
+        List<Long> nodeIds = nodeRepo.findIdsWithoutDescriptorAfter(job.getLanguageId(), job.getCheckpoint(),
+                PageRequest.of(0, batchSize));
+        if (nodeIds.isEmpty()) {
+            return false;
+        }
+        descriptorService.createEmptyDescriptors(job.getLanguageId(), nodeIds);
+        advance(job, nodeIds);
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_UPDATED, nodeIds.toArray(new Long[0])));
+        return true;
+    }
+
+    private boolean deleteChunk (LanguageJob job) {
+        List<Long> descriptorIds = descriptorRepo.findIdsByLanguageAfter(job.getLanguageId(), job.getCheckpoint(),
+                PageRequest.of(0, batchSize));
+        if (descriptorIds.isEmpty()) {
+            return false;
+        }
+        List<Long> nodeIds = descriptorRepo.findNodeIdsByIds(descriptorIds);
+        descriptorRepo.deleteAllByIdInBatch(descriptorIds);
+        advance(job, descriptorIds);
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_UPDATED, nodeIds.toArray(new Long[0])));
+        return true;
+    }
+
+    private void advance (LanguageJob job, List<Long> ids) {
+        job.setCheckpoint(ids.get(ids.size() - 1));
+        job.setProcessed(job.getProcessed() + ids.size());
+        logger.info("Language job " + job.getId() + " (" + job.getKind() + " " + job.getLanguageCode() + "): "
+                + job.getProcessed() + " of " + job.getTotal());
+    }
+
+    private void finish (LanguageJob job) {
+        if (job.getKind() == LanguageJob.Kind.ADD) {
+            languageRepo.findById(job.getLanguageId()).ifPresent((language) -> language.setActive(job.isActivate()));
+            job.setMsg("Descriptors have been expanded for " + job.getProcessed() + " nodes");
+        } else {
+            // descriptors created meanwhile (with IDs below the checkpoint) go here as well
+            descriptorRepo.deleteAllByLanguageId(job.getLanguageId());
+            languageRepo.deleteRowById(job.getLanguageId());
+            job.setMsg("Language " + job.getLanguageCode() + " has been deleted with " + job.getProcessed() + " descriptors");
+        }
+        job.setStatus(LanguageJob.Status.DONE);
+        job.setFinishedAt(Instant.now());
+        logger.info("Language job " + job.getId() + ": " + job.getMsg());
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.LANGUAGES_CHANGED));
+    }
+
+    private void cancel (LanguageJob job) {
+        job.setStatus(LanguageJob.Status.CANCELLED);
+        job.setFinishedAt(Instant.now());
+        Language language = languageRepo.findById(job.getLanguageId()).orElse(null);
+        if (language == null) {
+            job.setMsg("Job has been cancelled");
+        } else if (job.getKind() == LanguageJob.Kind.ADD) {
+            LanguageJob cleanup = createJob(LanguageJob.Kind.DELETE, language, job.isActivate());
+            job.setMsg("Job has been cancelled; the partly added language is removed by the job " + cleanup.getId());
+        } else {
+            LanguageJob restore = createJob(LanguageJob.Kind.ADD, language, job.isActivate());
+            job.setMsg("Job has been cancelled; descriptors of the language are restored by the job " + restore.getId());
+        }
+        logger.info("Language job " + job.getId() + ": " + job.getMsg());
+    }
+
+}
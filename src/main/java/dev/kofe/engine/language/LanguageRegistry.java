@@ -0,0 +1,137 @@
+package dev.kofe.engine.language;
+
+import dev.kofe.engine.common.CatalogEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  In-memory language registry
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  All languages are loaded on start into an immutable state (by ID, by code, default, active)
+ *  and the state is replaced as a whole after every committed language change (CatalogEvent),
+ *  so readers never see a half-updated registry and never query the Language table.
+ *  Languages are handed out as copies: callers may set done / msg on them freely.
+ *  *****************************************************************
+ */
+
+@Component
+public class LanguageRegistry {
+
+    private record State(List<Language> all,
+                         Map<Long, Language> byId,
+                         Map<String, Language> byCode,
+                         Language defaultLanguage,
+                         List<Language> active) { }
+
+    private final LanguageRepo languageRepo;
+    private volatile State state;
+    private static final Logger logger = LoggerFactory.getLogger(LanguageRegistry.class);
+
+    @Autowired
+    public LanguageRegistry (LanguageRepo languageRepo) {
+        this.languageRepo = languageRepo;
+    }
+
+    @PostConstruct
+    public synchronized void reload () {
+        List<Language> all = new ArrayList<>(languageRepo.findAll());
+        all.sort(Comparator.comparing(Language::getId));
+        Map<Long, Language> byId = new HashMap<>();
+        Map<String, Language> byCode = new HashMap<>();
+        Language defaultLanguage = null;
+        List<Language> active = new ArrayList<>();
+        for (Language language : all) {
+            byId.put(language.getId(), language);
+            if (language.getCode() != null) {
+                byCode.put(language.getCode(), language);
+            }
+            if (language.isBydefault()) {
+                defaultLanguage = language;
+            }
+            if (language.isActive()) {
+                active.add(language);
+            }
+        }
+        state = new State(Collections.unmodifiableList(all), byId, byCode, defaultLanguage,
+                Collections.unmodifiableList(active));
+        logger.info("Language registry has been loaded: " + all.size() + " language(s)");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        if (event.type() == CatalogEvent.Type.LANGUAGES_CHANGED) {
+            reload();
+        }
+    }
+
+    public Language findById (Long id) {
+        return copyOf(state.byId().get(id));
+    }
+
+    public Language findByCode (String code) {
+        return copyOf(state.byCode().get(code));
+    }
+
+    public Language findDefault () {
+        return copyOf(state.defaultLanguage());
+    }
+
+    public List<Language> findAll () {
+        return copyOf(state.all());
+    }
+
+    public List<Language> findActive () {
+        return copyOf(state.active());
+    }
+
+    public List<Long> findAllIds () {
+        List<Long> ids = new ArrayList<>();
+        for (Language language : state.all()) {
+            ids.add(language.getId());
+        }
+        return ids;
+    }
+
+    public int count () {
+        return state.all().size();
+    }
+
+    public int countActive () {
+        return state.active().size();
+    }
+
+    private static List<Language> copyOf (List<Language> languages) {
+        List<Language> copies = new ArrayList<>(languages.size());
+        for (Language language : languages) {
+            copies.add(copyOf(language));
+        }
+        return copies;
+    }
+
+    private static Language copyOf (Language language) {
+        if (language == null) {
+            return null;
+        }
+        Language copy = new Language();
+        copy.setId(language.getId());
+        copy.setCode(language.getCode());
+        copy.setName(language.getName());
+        copy.setNote(language.getNote());
+        copy.setInitial(language.isInitial());
+        copy.setBydefault(language.isBydefault());
+        copy.setActive(language.isActive());
+        return copy;
+    }
+
+}
@@ -1,10 +1,18 @@
 package dev.kofe.engine.language;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface LanguageRepo extends JpaRepository<Language, Long> {
     Language findTopByOrderByIdAsc();
     Language findByBydefault(boolean bydefault);
     List<Language> findByActive(boolean active);
+
+    // the row only: descriptors of the language have to be removed before (no loading of the collection)
+    @Modifying
+    @Query("delete from Language l where l.id = :id")
+    int deleteRowById(@Param("id") long id);
 }
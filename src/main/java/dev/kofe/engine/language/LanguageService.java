@@ -12,5 +12,5 @@ public interface LanguageService {
     Language updateLanguageBasicData (LanguageDto languageDto);
     List<Language> findActiveLanguages ();
     List<Language> findAllLanguages ();
-    void deleteLanguageById (long id);
+    LanguageJob deleteLanguageById (long id);
 }
@@ -1,11 +1,10 @@
 package dev.kofe.engine.language;
 
-import dev.kofe.engine.descriptor.DescriptorService;
-import dev.kofe.engine.node.Node;
-import dev.kofe.engine.node.NodeRepo;
+import dev.kofe.engine.common.CatalogEvent;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,8 +15,9 @@ import org.slf4j.LoggerFactory;
 public class LanguageServiceImpl implements LanguageService {
 
     private final LanguageRepo languageRepo;
-    private final NodeRepo nodeRepo;
-    private final DescriptorService descriptorService;
+    private final LanguageJobService languageJobService;
+    private final LanguageRegistry languageRegistry;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(LanguageServiceImpl.class);
 
     @Value("${engine.init.language.code}") private String defaultLanguageCode;
@@ -26,11 +26,17 @@ public class LanguageServiceImpl implements LanguageService {
 
     @Autowired
     public LanguageServiceImpl (LanguageRepo languageRepo,
-                                NodeRepo nodeRepo,
-                                DescriptorService descriptorService) {
+                                LanguageJobService languageJobService,
+                                LanguageRegistry languageRegistry,
+                                ApplicationEventPublisher eventPublisher) {
         this.languageRepo = languageRepo;
-        this.nodeRepo = nodeRepo;
-        this.descriptorService = descriptorService;
+        this.languageJobService = languageJobService;
+        this.languageRegistry = languageRegistry;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private void publishLanguagesChanged () {
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.LANGUAGES_CHANGED));
     }
 
     @Transactional
@@ -54,6 +60,7 @@ public class LanguageServiceImpl implements LanguageService {
             language.setInitial(true);
             language.setBydefault(true);
             language = languageRepo.save(language);
+            publishLanguagesChanged();
         } else {
             language = languageRepo.findTopByOrderByIdAsc();
             if (language != null) {
@@ -65,12 +72,29 @@ public class LanguageServiceImpl implements LanguageService {
         return language;
     }
 
+    /*
+     *  A language with an unfinished job is left as it is: the job sets the active status itself when it is done
+     *  (ADD) or removes the language (DELETE). done = false and jobId = the job in that case.
+     */
+    private boolean isLockedByJob (Language language) {
+        LanguageJob job = languageJobService.findUnfinishedJob(language.getId());
+        if (job != null) {
+            language.setDone(false);
+            language.setJobId(job.getId());
+            language.setMsg("Language " + language.getCode() + " can not be changed while the job " + job.getId()
+                    + " (" + job.getKind() + ") is not finished");
+            logger.warn(language.getMsg());
+            return true;
+        }
+        return false;
+    }
+
     @Transactional
     public Language setLanguageActiveStatus (Long languageId, boolean status) {
         Language language = languageRepo.findById(languageId).orElse(null);
-        if (language != null) {
+        if (language != null && !isLockedByJob(language)) {
             // if language is alone in the system and new status is false...
-            if (languageRepo.count() == 1) {
+            if (languageRegistry.count() == 1) {
                 language.setDone(false);
                 language.setMsg("It is not possible to change the active status for a lone language in the system");
             } else {
@@ -78,6 +102,7 @@ public class LanguageServiceImpl implements LanguageService {
                     // activated
                     language.setActive(true);
                     language.setMsg("Language has been activated");
+                    publishLanguagesChanged();
                 } else {
                     // deactivated
                     if (language.isBydefault()) {
@@ -86,10 +111,11 @@ public class LanguageServiceImpl implements LanguageService {
                         language.setMsg("It is not possible to deactivate default language");
                     } else {
                         // language is not bydefault, go on
-                        if (languageRepo.findByActive(true).size() > 1) {
+                        if (languageRegistry.countActive() > 1) {
                             // it is not lone active language, go on
                             language.setActive(false);
                             language.setMsg("Language has been de-activated");
+                            publishLanguagesChanged();
                         } else {
                             // it is lone active language
                             language.setDone(false);
@@ -106,7 +132,7 @@ public class LanguageServiceImpl implements LanguageService {
     @Transactional
     public Language setDefaultLanguage (Long languageId) {
         Language language = languageRepo.findById(languageId).orElse(null);
-        if (language != null) {
+        if (language != null && !isLockedByJob(language)) {
             if (!language.isActive()) {
                 // It is not possible to set the bydefault status for the inactive language
                 language.setDone(false);
@@ -117,6 +143,7 @@ public class LanguageServiceImpl implements LanguageService {
                 language.setBydefault(true);
                 language = languageRepo.save(language);
                 language.setMsg("Language " + language.getCode() + " set as default");
+                publishLanguagesChanged();
             }
         }
 
@@ -132,30 +159,31 @@ public class LanguageServiceImpl implements LanguageService {
     }
 
     public Language findDefaultLanguage () {
-        return languageRepo.findByBydefault(true);
+        return languageRegistry.findDefault();
     }
 
     public Language findLanguageById (Long id) {
-        return languageRepo.findById(id).orElse(null);
+        return languageRegistry.findById(id);
     }
 
+    /*
+     *  The language is saved as inactive; its descriptors are expanded by a background job
+     *  (LanguageJobService) which sets the requested active status when all nodes are covered.
+     */
     @Transactional
     public Language addNewLanguage(LanguageDto languageDto) {
         Language language = new Language();
         language.setCode(languageDto.getCode());
         language.setName(languageDto.getName());
         language.setNote(languageDto.getNote());
-        language.setActive(languageDto.isActive());
+        language.setActive(false);
         language = languageRepo.save(language);
 
-        // Clone descriptors for new language
-        List<Node> nodes = nodeRepo.findAll();
-        for (Node node : nodes) {
-            node.addDescriptor(descriptorService.createNewDescriptorForLanguage(language));
-        }
-
+        LanguageJob job = languageJobService.createJob(LanguageJob.Kind.ADD, language, languageDto.isActive());
+        language.setJobId(job.getId());
         language.setMsg("Language " + languageDto.getCode() + " has been added. "
-                        + "Descriptors has been cloned for " + nodes.size() + " nodes");
+                        + "Descriptors are being expanded by the job " + job.getId());
+        publishLanguagesChanged();
 
         return language;
     }
@@ -170,21 +198,36 @@ public class LanguageServiceImpl implements LanguageService {
             language = languageRepo.save(language);
 
             language.setMsg("Language " + languageDto.getCode() + " has been updated");
+            publishLanguagesChanged();
         }
 
         return language;
     }
 
     public List<Language> findActiveLanguages () {
-        return languageRepo.findByActive(true);
+        return languageRegistry.findActive();
     }
 
     public List<Language> findAllLanguages () {
-        return languageRepo.findAll();
+        return languageRegistry.findAll();
     }
 
-    public void deleteLanguageById (long id) {
-        languageRepo.deleteById(id);
+    /*
+     *  The language is deactivated at once and removed by a background job (LanguageJobService).
+     *  null if the language is not found or another job of the language is not finished yet
+     */
+    @Transactional
+    public LanguageJob deleteLanguageById (long id) {
+        Language language = languageRepo.findById(id).orElse(null);
+        if (language == null || languageJobService.hasUnfinishedJob(id)) {
+            return null;
+        }
+        boolean wasActive = language.isActive();
+        language.setActive(false);
+        LanguageJob job = languageJobService.createJob(LanguageJob.Kind.DELETE, language, wasActive);
+        publishLanguagesChanged();
+
+        return job;
     }
 
 }
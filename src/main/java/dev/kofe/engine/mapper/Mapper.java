@@ -1,35 +1,73 @@
 package dev.kofe.engine.mapper;
 
+import dev.kofe.engine.cache.DescriptorSnapshot;
 import dev.kofe.engine.descriptor.Descriptor;
 import dev.kofe.engine.descriptor.DescriptorDto;
 import dev.kofe.engine.language.Language;
 import dev.kofe.engine.language.LanguageDto;
+import dev.kofe.engine.language.LanguageJob;
+import dev.kofe.engine.language.LanguageJobDto;
+import dev.kofe.engine.language.LanguageRegistry;
 import dev.kofe.engine.node.Node;
 import dev.kofe.engine.node.NodeDto;
 import dev.kofe.engine.node.NodeParentDto;
-import org.modelmapper.ModelMapper;
+import dev.kofe.engine.node.NodeTree;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/*
+ *  Entity -> DTO mapper
+ *  [Kofe Simple Engine]
+ *  hand-written field copies (no reflection): only the fields of the DTO are read,
+ *  so associations are touched only where the DTO really contains them
+ */
+
 @Service
 public class Mapper {
 
-    private final ModelMapper modelMapper = new ModelMapper();
-
+    private final LanguageRegistry languageRegistry;
     private static final Logger logger = LoggerFactory.getLogger(Mapper.class);
 
-    public static <R, E> List<R> convertList(List<E> list, Function<E, R> converter) {
-        return (list != null) ? list.stream().map(converter).collect(Collectors.toList()) : null;
+    @Autowired
+    public Mapper (LanguageRegistry languageRegistry) {
+        this.languageRegistry = languageRegistry;
+    }
+
+    // any collection (entity lists and sets alike) -> list of DTOs in the iteration order
+    public static <R, E> List<R> convertList(Collection<E> items, Function<E, R> converter) {
+        if (items == null) {
+            return null;
+        }
+        List<R> result = new ArrayList<>(items.size());
+        for (E item : items) {
+            result.add(converter.apply(item));
+        }
+        return result;
     }
 
     // Language
     public LanguageDto convertToLanguageDto (Language language) {
         if (language != null) {
-            LanguageDto languageDto = modelMapper.map(language, LanguageDto.class);
+            LanguageDto languageDto = new LanguageDto();
+            languageDto.setId(language.getId());
+            languageDto.setCode(language.getCode());
+            languageDto.setName(language.getName());
+            languageDto.setNote(language.getNote());
+            languageDto.setInitial(language.isInitial());
+            languageDto.setBydefault(language.isBydefault());
+            languageDto.setActive(language.isActive());
+            languageDto.setDone(language.isDone());
+            languageDto.setMsg(language.getMsg());
+            languageDto.setJobId(language.getJobId());
             return languageDto;
         } else {
             logger.error("Parameter 'language' for the mapper can not be null");
@@ -37,10 +75,36 @@ public class Mapper {
         }
     }
 
+    public LanguageJobDto convertToLanguageJobDto (LanguageJob job) {
+        if (job != null) {
+            return new LanguageJobDto(job.getId(), job.getKind(), job.getStatus(), job.getLanguageId(),
+                    job.getLanguageCode(), job.getProcessed(), job.getTotal(), job.getMsg(),
+                    job.getCreatedAt(), job.getFinishedAt());
+        } else {
+            logger.error("Parameter 'job' for the mapper can not be null");
+            return null;
+        }
+    }
+
     // Descriptor
     public DescriptorDto convertToDescriptorDto (Descriptor descriptor) {
         if (descriptor != null) {
-            DescriptorDto descriptorDto = modelMapper.map(descriptor, DescriptorDto.class);
+            DescriptorDto descriptorDto = new DescriptorDto();
+            descriptorDto.setId(descriptor.getId());
+            descriptorDto.setTitle(descriptor.getTitle());
+            descriptorDto.setBrief(descriptor.getBrief());
+            descriptorDto.setFullDescr(descriptor.getFullDescr());
+            Language language = descriptor.getLanguage();
+            if (language != null) {
+                if (!Hibernate.isInitialized(language)) {
+                    // not loaded yet: take it from the registry instead of a query by ID
+                    Language registered = languageRegistry.findById(language.getId());
+                    if (registered != null) {
+                        language = registered;
+                    }
+                }
+                descriptorDto.setLanguage(convertToLanguageDto(language));
+            }
             return descriptorDto;
         } else {
             logger.error("Parameter 'descriptor' for the mapper can not be null");
@@ -48,25 +112,139 @@ public class Mapper {
         }
     }
 
+    // Descriptor, snapshot case
+    public DescriptorDto convertToDescriptorDto (DescriptorSnapshot descriptor) {
+        if (descriptor != null) {
+            DescriptorDto descriptorDto = new DescriptorDto();
+            descriptorDto.setId(descriptor.id());
+            descriptorDto.setTitle(descriptor.title());
+            descriptorDto.setBrief(descriptor.brief());
+            descriptorDto.setFullDescr(descriptor.fullDescr());
+            DescriptorSnapshot.LanguageSnapshot language = descriptor.language();
+            if (language != null) {
+                LanguageDto languageDto = new LanguageDto();
+                languageDto.setId(language.id());
+                languageDto.setCode(language.code());
+                languageDto.setName(language.name());
+                languageDto.setNote(language.note());
+                languageDto.setInitial(language.initial());
+                languageDto.setBydefault(language.bydefault());
+                languageDto.setActive(language.active());
+                descriptorDto.setLanguage(languageDto);
+            }
+            return descriptorDto;
+        } else {
+            logger.error("Parameter 'descriptor' (snapshot case) for the mapper can not be null");
+            return null;
+        }
+    }
+
     // Node
     public NodeDto convertToNodeDto (Node node) {
         if (node != null) {
-            NodeDto nodeDto = modelMapper.map(node, NodeDto.class);
-            nodeDto.setSubsDto(Mapper.convertList(node.getSubs(), (item) -> convertToNodeDto(item)));
+            return convertToNodeDto(node, convertToNodeParentDto(node));
+        } else {
+            logger.error("Parameter 'node' for the mapper can not be null");
+            return null;
+        }
+    }
+
+    // Node, flat case (pages and export): descriptors without subs, the parent is referenced by ID only
+    public NodeDto convertToFlatNodeDto (Node node) {
+        if (node != null) {
+            NodeDto nodeDto = convertToNodeDtoBasics(node);
             nodeDto.setDescriptorsDto(Mapper.convertList(node.getDescriptors(), (item) -> convertToDescriptorDto(item)));
-            nodeDto.setNodeParentDto(convertToNodeParentDto(node));
+            if (node.getParent() != null) {
+                NodeParentDto nodeParentDto = new NodeParentDto();
+                nodeParentDto.setId(node.getParent().getId());
+                nodeDto.setNodeParentDto(nodeParentDto);
+            }
             return nodeDto;
         } else {
-            logger.error("Parameter 'node' for the mapper can not be null");
+            logger.error("Parameter 'node' (flat case) for the mapper can not be null");
             return null;
         }
     }
 
+    // the parent DTO is built once per parent and shared by all of its subs
+    private NodeDto convertToNodeDto (Node node, NodeParentDto nodeParentDto) {
+        NodeDto nodeDto = convertToNodeDtoBasics(node);
+        nodeDto.setDescriptorsDto(Mapper.convertList(node.getDescriptors(), (item) -> convertToDescriptorDto(item)));
+        nodeDto.setNodeParentDto(nodeParentDto);
+        if (!node.getSubs().isEmpty()) {
+            NodeParentDto asParentDto = convertToNodeParentDto(nodeDto);
+            nodeDto.setSubsDto(Mapper.convertList(node.getSubs(), (item) -> convertToNodeDto(item, asParentDto)));
+        }
+        return nodeDto;
+    }
+
+    private NodeDto convertToNodeDtoBasics (Node node) {
+        NodeDto nodeDto = new NodeDto();
+        nodeDto.setId(node.getId());
+        nodeDto.setNote(node.getNote());
+        nodeDto.setActive(node.isActive());
+        nodeDto.setEffectivelyActive(node.getEffectivelyActive());
+        nodeDto.setSortKey(node.getSortKey());
+        nodeDto.setDepth(node.getDepth());
+        nodeDto.setDescendantCount(node.getDescendantCount());
+        nodeDto.setActiveDescendantCount(node.getActiveDescendantCount());
+        nodeDto.setDone(node.isDone());
+        nodeDto.setMsg(node.getMsg());
+        return nodeDto;
+    }
+
+    // Node tree, assembled in memory from the preloaded subtree (no lazy loading of subs and descriptors)
+    public NodeDto convertToNodeDto (NodeTree nodeTree) {
+        if (nodeTree != null) {
+            Map<Long, NodeDto> nodeDtos = new HashMap<>();
+            for (Node node : nodeTree.nodes()) {
+                NodeDto nodeDto = convertToNodeDtoBasics(node);
+                nodeDto.setDescriptorsDto(Mapper.convertList(nodeTree.descriptorsOf(node.getId()), (item) -> convertToDescriptorDto(item)));
+                if (node != nodeTree.root()) {
+                    NodeDto parentDto = nodeDtos.get(node.getParent().getId());
+                    parentDto.getSubsDto().add(nodeDto);
+                    nodeDto.setNodeParentDto(convertToNodeParentDto(parentDto));
+                } else if (node.getParent() != null) {
+                    Node parent = node.getParent();
+                    NodeParentDto nodeParentDto = convertToNodeParentDtoBasics(parent);
+                    nodeParentDto.setDescriptorsDto(Mapper.convertList(nodeTree.descriptorsOf(parent.getId()), (item) -> convertToDescriptorDto(item)));
+                    nodeDto.setNodeParentDto(nodeParentDto);
+                }
+                nodeDtos.put(node.getId(), nodeDto);
+            }
+            return nodeDtos.get(nodeTree.root().getId());
+        } else {
+            logger.error("Parameter 'nodeTree' for the mapper can not be null");
+            return null;
+        }
+    }
+
+    private NodeParentDto convertToNodeParentDto (NodeDto parentDto) {
+        NodeParentDto nodeParentDto = new NodeParentDto();
+        nodeParentDto.setId(parentDto.getId());
+        nodeParentDto.setNote(parentDto.getNote());
+        nodeParentDto.setActive(parentDto.isActive());
+        nodeParentDto.setDone(parentDto.isDone());
+        nodeParentDto.setMsg(parentDto.getMsg());
+        nodeParentDto.setDescriptorsDto(parentDto.getDescriptorsDto());
+        return nodeParentDto;
+    }
+
+    private NodeParentDto convertToNodeParentDtoBasics (Node parent) {
+        NodeParentDto nodeParentDto = new NodeParentDto();
+        nodeParentDto.setId(parent.getId());
+        nodeParentDto.setNote(parent.getNote());
+        nodeParentDto.setActive(parent.isActive());
+        nodeParentDto.setDone(parent.isDone());
+        nodeParentDto.setMsg(parent.getMsg());
+        return nodeParentDto;
+    }
+
     // Node, parent case
     public NodeParentDto convertToNodeParentDto (Node node) {
         if (node != null) {
             if (node.getParent() != null) {
-                NodeParentDto nodeParentDto = modelMapper.map(node.getParent(), NodeParentDto.class);
+                NodeParentDto nodeParentDto = convertToNodeParentDtoBasics(node.getParent());
                 nodeParentDto.setDescriptorsDto(Mapper.convertList(node.getParent().getDescriptors(), (item) -> convertToDescriptorDto(item)));
                 return nodeParentDto;
             } else {
@@ -0,0 +1,30 @@
+package dev.kofe.engine.metrics;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import java.util.concurrent.Callable;
+
+/*
+ *  Carries the counters of the request (see RequestMetricsFilter) to the thread of its async part:
+ *  StreamingResponseBody and Callable results are run as Callables by Spring MVC,
+ *  preProcess / postProcess are called on that thread around the task
+ *  [Kofe Simple Engine]
+ */
+
+class AsyncRequestCountersInterceptor implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess (NativeWebRequest request, Callable<T> task) {
+        Object counters = request.getAttribute(RequestCounters.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (counters instanceof RequestCounters requestCounters) {
+            RequestCounters.resume(requestCounters);
+        }
+    }
+
+    @Override
+    public <T> void postProcess (NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        RequestCounters.end();
+    }
+
+}
@@ -0,0 +1,13 @@
+package dev.kofe.engine.metrics;
+
+import jakarta.persistence.PostLoad;
+
+// entity listener: counts the entities loaded for the current request
+public class EntityLoadCounter {
+
+    @PostLoad
+    public void loaded (Object entity) {
+        RequestCounters.entityLoaded();
+    }
+
+}
@@ -0,0 +1,75 @@
+package dev.kofe.engine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ *  Lock-free log-linear histogram of durations in microseconds
+ *  [Kofe Simple Engine]
+ *  every power of two is split into 4 buckets (resolution about 25%),
+ *  percentiles are reported as the upper bound of their bucket
+ */
+
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 4;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    void record (long nanos) {
+        long micros = Math.max(1, nanos / 1_000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    long count () {
+        return count.get();
+    }
+
+    double meanMillis () {
+        long n = count.get();
+        return (n == 0) ? 0 : totalMicros.get() / 1_000.0 / n;
+    }
+
+    double maxMillis () {
+        return maxMicros.get() / 1_000.0;
+    }
+
+    // p in (0, 1]
+    double percentileMillis (double p) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int index = 0; index < buckets.length(); index++) {
+            seen += buckets.get(index);
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(index), maxMicros.get()) / 1_000.0;
+            }
+        }
+        return maxMillis();
+    }
+
+    private static int indexOf (long micros) {
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (exponent < 2) ? 0 : (int) ((micros >> (exponent - 2)) & (SUB_BUCKETS - 1));
+        return exponent * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf (int index) {
+        int exponent = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (exponent < 2) {
+            return (2L << exponent) - 1;
+        }
+        return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 2)) - 1;
+    }
+
+}
@@ -0,0 +1,24 @@
+package dev.kofe.engine.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// registers the SQL statement counter with Hibernate and carries the request counters to async processing
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer () {
+        return (properties) -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Override
+    public void configureAsyncSupport (AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new AsyncRequestCountersInterceptor());
+    }
+
+}
@@ -0,0 +1,52 @@
+package dev.kofe.engine.metrics;
+
+import dev.kofe.engine.cache.CacheStats;
+import dev.kofe.engine.cache.CatalogCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
+
+/*      Metrics API
+ *      [Kofe Simple Engine]
+ *
+ *      GET /metrics                        :   metrics since the start
+ *                                          :   endpoints: by "METHOD /pattern" -
+ *                                          :       latency { count, meanMs, p50Ms, p95Ms, p99Ms, maxMs },
+ *                                          :       SQL statements, loaded entities, response bytes (total and per request)
+ *                                          :   methods: by "Class.method" of the services and the mapper - latency
+ *                                          :   cache: statistics of the catalog cache (as GET /cache)
+ *                                          :   200 = ok
+ *
+ *      Percentiles are approximate (about 25%).
+ *      Requests slower than 'engine.metrics.slow-request-ms' are logged with their SQL statement count.
+ */
+
+@RestController
+@RequestMapping("/metrics")
+public class MetricsController {
+
+    public record Metrics(Map<String, MetricsRegistry.EndpointStats> endpoints,
+                          Map<String, MetricsRegistry.TimerStats> methods,
+                          Map<String, CacheStats> cache) { }
+
+    private final MetricsRegistry metricsRegistry;
+    private final CatalogCache catalogCache;
+
+    @Autowired
+    public MetricsController (MetricsRegistry metricsRegistry, CatalogCache catalogCache) {
+        this.metricsRegistry = metricsRegistry;
+        this.catalogCache = catalogCache;
+    }
+
+    @GetMapping("")
+    public ResponseEntity<Metrics> getMetrics () {
+        return new ResponseEntity<>(
+                new Metrics(metricsRegistry.endpointStats(), metricsRegistry.methodStats(), catalogCache.stats()),
+                HttpStatus.OK);
+    }
+
+}
@@ -0,0 +1,76 @@
+package dev.kofe.engine.metrics;
+
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ *  In-process metrics
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  endpoints -- "METHOD /pattern" -> latency histogram, SQL statements, loaded entities, response bytes
+ *  methods   -- "Class.method" of the instrumented services -> latency histogram
+ *  *****************************************************************
+ */
+
+@Component
+public class MetricsRegistry {
+
+    public record TimerStats(long count, double meanMs, double p50Ms, double p95Ms, double p99Ms, double maxMs) { }
+
+    public record EndpointStats(TimerStats latency,
+                                long statements,
+                                double statementsPerRequest,
+                                long entities,
+                                double entitiesPerRequest,
+                                long bytes,
+                                double bytesPerRequest) { }
+
+    private static class EndpointMetrics {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong statements = new AtomicLong();
+        final AtomicLong entities = new AtomicLong();
+        final AtomicLong bytes = new AtomicLong();
+    }
+
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> methods = new ConcurrentHashMap<>();
+
+    void recordRequest (String endpoint, long nanos, int statements, int entities, long bytes) {
+        EndpointMetrics metrics = endpoints.computeIfAbsent(endpoint, (key) -> new EndpointMetrics());
+        metrics.latency.record(nanos);
+        metrics.statements.addAndGet(statements);
+        metrics.entities.addAndGet(entities);
+        metrics.bytes.addAndGet(bytes);
+    }
+
+    LatencyHistogram methodTimer (String name) {
+        return methods.computeIfAbsent(name, (key) -> new LatencyHistogram());
+    }
+
+    public Map<String, EndpointStats> endpointStats () {
+        Map<String, EndpointStats> stats = new TreeMap<>();
+        endpoints.forEach((endpoint, metrics) -> {
+            long count = Math.max(1, metrics.latency.count());
+            stats.put(endpoint, new EndpointStats(timerStats(metrics.latency),
+                    metrics.statements.get(), (double) metrics.statements.get() / count,
+                    metrics.entities.get(), (double) metrics.entities.get() / count,
+                    metrics.bytes.get(), (double) metrics.bytes.get() / count));
+        });
+        return stats;
+    }
+
+    public Map<String, TimerStats> methodStats () {
+        Map<String, TimerStats> stats = new TreeMap<>();
+        methods.forEach((method, histogram) -> stats.put(method, timerStats(histogram)));
+        return stats;
+    }
+
+    private static TimerStats timerStats (LatencyHistogram histogram) {
+        return new TimerStats(histogram.count(), histogram.meanMillis(), histogram.percentileMillis(0.5),
+                histogram.percentileMillis(0.95), histogram.percentileMillis(0.99), histogram.maxMillis());
+    }
+
+}
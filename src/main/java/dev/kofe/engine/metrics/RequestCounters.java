@@ -0,0 +1,60 @@
+package dev.kofe.engine.metrics;
+
+/*
+ *  Counters of the request handled by the current thread
+ *  [Kofe Simple Engine]
+ *  static: the SQL inspector and the entity listener are created by Hibernate, not by Spring.
+ *  Work outside of a request (background jobs, index rebuilds) is not counted; the async part of a request
+ *  (StreamingResponseBody, Callable) is counted on its thread too (see AsyncRequestCountersInterceptor).
+ */
+
+public final class RequestCounters {
+
+    static final String ATTRIBUTE = RequestCounters.class.getName();
+
+    private static final ThreadLocal<RequestCounters> CURRENT = new ThreadLocal<>();
+
+    // volatile: the async part of the request runs on another thread, the counters are read after it
+    private volatile int statements;
+    private volatile int entities;
+
+    private RequestCounters () { }
+
+    static RequestCounters begin () {
+        RequestCounters counters = new RequestCounters();
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    // the counters of the request go on with the async part of it on the current thread
+    static void resume (RequestCounters counters) {
+        CURRENT.set(counters);
+    }
+
+    static void end () {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted () {
+        RequestCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+        }
+    }
+
+    static void entityLoaded () {
+        RequestCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entities++;
+        }
+    }
+
+    int statements () {
+        return statements;
+    }
+
+    int entities () {
+        return entities;
+    }
+
+}
@@ -0,0 +1,137 @@
+package dev.kofe.engine.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Per-request metrics: latency, SQL statements, loaded entities and response bytes by endpoint
+ *  [Kofe Simple Engine]
+ *  Requests slower than 'engine.metrics.slow-request-ms' (1000 by default, 0 = off) are logged
+ *  with their counters. Streamed (async) responses are recorded when the stream is complete,
+ *  with the SQL statements and entities of the async part (see AsyncRequestCountersInterceptor).
+ */
+
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MetricsRegistry metricsRegistry;
+    private static final Logger logger = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    @Value("${engine.metrics.slow-request-ms:1000}") private long slowRequestMs;
+
+    @Autowired
+    public RequestMetricsFilter (MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal (HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestCounters counters = RequestCounters.begin();
+        request.setAttribute(RequestCounters.ATTRIBUTE, counters);
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            chain.doFilter(request, countingResponse);
+        } finally {
+            countingResponse.flushWriter();
+            RequestCounters.end();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override public void onComplete (AsyncEvent event) { record(request, start, counters, countingResponse); }
+                    @Override public void onTimeout (AsyncEvent event) { }
+                    @Override public void onError (AsyncEvent event) { }
+                    @Override public void onStartAsync (AsyncEvent event) { }
+                });
+            } else {
+                record(request, start, counters, countingResponse);
+            }
+        }
+    }
+
+    private void record (HttpServletRequest request, long start, RequestCounters counters, CountingResponse response) {
+        long nanos = System.nanoTime() - start;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (pattern != null ? pattern : "(unmapped)");
+        metricsRegistry.recordRequest(endpoint, nanos, counters.statements(), counters.entities(), response.bytes);
+        long millis = nanos / 1_000_000;
+        if (slowRequestMs > 0 && millis >= slowRequestMs) {
+            String query = request.getQueryString();
+            logger.warn("Slow request " + request.getMethod() + " " + request.getRequestURI()
+                    + (query != null ? "?" + query : "") + ": " + millis + " ms, status " + response.getStatus()
+                    + ", " + counters.statements() + " SQL statement(s), " + counters.entities() + " entity(ies), "
+                    + response.bytes + " byte(s)");
+        }
+    }
+
+    // counts the bytes of the body written through the output stream or the writer
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse (HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream () throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override public boolean isReady () { return target.isReady(); }
+                    @Override public void setWriteListener (WriteListener listener) { target.setWriteListener(listener); }
+                    @Override public void write (int b) throws IOException { target.write(b); bytes++; }
+                    @Override public void write (byte[] b, int off, int len) throws IOException { target.write(b, off, len); bytes += len; }
+                    @Override public void flush () throws IOException { target.flush(); }
+                    @Override public void close () throws IOException { target.close(); }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter () throws IOException {
+            if (writer == null) {
+                String encoding = getCharacterEncoding();
+                Charset charset = (encoding != null) ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset), true);
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer () throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter () {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,72 @@
+package dev.kofe.engine.metrics;
+
+import dev.kofe.engine.descriptor.DescriptorServiceImpl;
+import dev.kofe.engine.language.LanguageServiceImpl;
+import dev.kofe.engine.mapper.Mapper;
+import dev.kofe.engine.node.NodeServiceImpl;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ *  Timers of the public methods of the node, language and descriptor services and of the mapper
+ *  [Kofe Simple Engine]
+ *  the timing advice is put in front of the existing (transactional) proxy, so the time includes the commit;
+ *  a bean without a proxy gets one
+ */
+
+@Component
+public class ServiceMethodTimer implements BeanPostProcessor {
+
+    private static final Set<Class<?>> TIMED = Set.of(
+            NodeServiceImpl.class, LanguageServiceImpl.class, DescriptorServiceImpl.class, Mapper.class);
+
+    private final ObjectProvider<MetricsRegistry> metricsRegistry;
+    private final Map<Method, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    public ServiceMethodTimer (ObjectProvider<MetricsRegistry> metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization (Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        if (!TIMED.contains(targetClass)) {
+            return bean;
+        }
+        MethodInterceptor timer = (invocation) -> {
+            long start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timerOf(targetClass, invocation.getMethod()).record(System.nanoTime() - start);
+            }
+        };
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, timer);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(timer);
+        return proxyFactory.getProxy(targetClass.getClassLoader());
+    }
+
+    private LatencyHistogram timerOf (Class<?> targetClass, Method method) {
+        LatencyHistogram timer = timers.get(method);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(method,
+                    (key) -> metricsRegistry.getObject().methodTimer(targetClass.getSimpleName() + "." + method.getName()));
+        }
+        return timer;
+    }
+
+}
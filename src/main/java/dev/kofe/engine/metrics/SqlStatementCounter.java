@@ -0,0 +1,14 @@
+package dev.kofe.engine.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// counts the SQL statements prepared by Hibernate for the current request
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect (String sql) {
+        RequestCounters.statementExecuted();
+        return sql;
+    }
+
+}
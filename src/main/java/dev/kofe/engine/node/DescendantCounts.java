@@ -0,0 +1,75 @@
+package dev.kofe.engine.node;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ *  Pending changes of the subtree aggregates (descendantCount, activeDescendantCount) of the ancestors
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Changes are summed up by ancestor ID; apply() issues one bulk update per distinct pair of deltas
+ *  (IN lists of at most 'chunkSize' IDs), so adding a thousand nodes under one branch updates
+ *  every ancestor once, not a thousand times.
+ *  The aggregate columns are not updatable through the entities: these bulk updates are the only writers,
+ *  so a stale entity of an ancestor can never overwrite them on flush.
+ *  *****************************************************************
+ */
+
+final class DescendantCounts {
+
+    private record Delta(long count, long activeCount) { }
+
+    private final Map<Long, long[]> byAncestor = new LinkedHashMap<>();
+
+    // the subtree (count nodes, activeCount of them active) appears under the node with the path (or disappears for negative counts)
+    DescendantCounts add (String path, long count, long activeCount) {
+        return addTo(NodePath.ancestorIdsOf(path), count, activeCount);
+    }
+
+    DescendantCounts addTo (List<Long> ancestorIds, long count, long activeCount) {
+        for (Long ancestorId : ancestorIds) {
+            long[] deltas = byAncestor.computeIfAbsent(ancestorId, (key) -> new long[2]);
+            deltas[0] += count;
+            deltas[1] += activeCount;
+        }
+        return this;
+    }
+
+    boolean isEmpty () {
+        return byAncestor.isEmpty();
+    }
+
+    // IDs of the nodes whose aggregates change
+    List<Long> ancestorIds () {
+        List<Long> ids = new ArrayList<>();
+        byAncestor.forEach((id, deltas) -> {
+            if (deltas[0] != 0 || deltas[1] != 0) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    int apply (NodeRepo nodeRepo, int chunkSize) {
+        Map<Delta, List<Long>> idsByDelta = new HashMap<>();
+        byAncestor.forEach((id, deltas) -> {
+            if (deltas[0] != 0 || deltas[1] != 0) {
+                idsByDelta.computeIfAbsent(new Delta(deltas[0], deltas[1]), (key) -> new ArrayList<>()).add(id);
+            }
+        });
+        int updated = 0;
+        for (Map.Entry<Delta, List<Long>> entry : idsByDelta.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                updated += nodeRepo.addToDescendantCounts(ids.subList(from, Math.min(from + chunkSize, ids.size())),
+                        entry.getKey().count(), entry.getKey().activeCount());
+            }
+        }
+        byAncestor.clear();
+        return updated;
+    }
+
+}
@@ -1,26 +1,68 @@
 package dev.kofe.engine.node;
 
 import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.metrics.EntityLoadCounter;
 import jakarta.persistence.*;
-import lombok.Data;
-import java.util.ArrayList;
-import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/*
+ *  Node model
+ *  [Kofe Simple Engine]
+ *  identity is the database ID: equals/hashCode never touch the associations, so a node is added to
+ *  (or removed from) a collection in O(1); a node gets into collections after it has been persisted.
+ *  addSubNode/removeSubNode and addDescriptor/removeDescriptor keep the in-memory side of a collection
+ *  in sync only if it is already loaded: the owning side (parent, node) is what gets stored.
+ */
 
 @Entity
-@Data
+@EntityListeners(EntityLoadCounter.class)
+@Getter
+@Setter
+@Table(indexes = {
+        @Index(name = "idx_node_path", columnList = "path"),
+        @Index(name = "idx_node_parent_sort", columnList = "parent_id, sort_key"),
+        @Index(name = "idx_node_effectively_active", columnList = "effectively_active, id")
+})
 public class Node {
     @Id @GeneratedValue(strategy = GenerationType.AUTO)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY) // LAZY, note: spring.jpa.open-in-view is enabled by default
+    @JoinColumn(name = "parent_id")
     private Node parent;
 
     @OneToMany (mappedBy = "parent", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Node> subs = new ArrayList<>();
+    @OrderBy("sortKey, id")
+    private Set<Node> subs = new LinkedHashSet<>();
 
-    // descriptors
+    // descriptors; lazy collections of the nodes in one page are initialized together
     @OneToMany (mappedBy = "node", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<Descriptor> descriptors = new ArrayList<>();
+    @BatchSize(size = 500)
+    @OrderBy("id")
+    private Set<Descriptor> descriptors = new LinkedHashSet<>();
+
+    // ancestry index: materialized path "/rootId/.../id/", see NodePath
+    @Column(length = 1024)
+    private String path;
+
+    // order among the siblings: gap-based key, see SiblingOrder (null for nodes created before, filled on start)
+    @Column(name = "sort_key")
+    private Long sortKey;
+
+    // subtree aggregates: level (0 for a root) and the numbers of all / own-active descendants;
+    // written on insert and by bulk updates only (see DescendantCounts), null for nodes created before (filled on start)
+    @Column(updatable = false)
+    private Integer depth;
+    @Column(updatable = false)
+    private Long descendantCount;
+    @Column(updatable = false)
+    private Long activeDescendantCount;
 
     // business
     // ...
@@ -31,48 +73,70 @@ public class Node {
     private String note;
     private boolean active = true;
 
+    // visibility: active and all ancestors active; written on insert and by the subtree bulk updates only
+    // (see NodeServiceImpl.recomputeEffectivelyActive), null for nodes created before (filled on start)
+    @Column(name = "effectively_active", updatable = false)
+    private Boolean effectivelyActive;
+
     @Transient private boolean done = true; // service; done = true in the case of a fully successful operation
     @Transient private String msg = ""; // service; for the status message
 
     public void addSubNode (Node subNode) {
-        this.subs.add(subNode);
+        if (Hibernate.isInitialized(this.subs)) {
+            this.subs.add(subNode);
+        }
         subNode.setParent(this);
     }
 
     public void removeSubNode (Node subNode) {
-        this.subs.remove(subNode);
+        if (Hibernate.isInitialized(this.subs)) {
+            this.subs.remove(subNode);
+        }
         subNode.setParent(null);
     }
 
     public void addDescriptor (Descriptor descriptor) {
-        this.descriptors.add(descriptor);
+        if (Hibernate.isInitialized(this.descriptors)) {
+            this.descriptors.add(descriptor);
+        }
         descriptor.setNode(this);
     }
 
     public void removeDescriptor (Descriptor descriptor) {
-        this.descriptors.remove(descriptor);
+        if (Hibernate.isInitialized(this.descriptors)) {
+            this.descriptors.remove(descriptor);
+        }
         descriptor.setNode(null);
     }
 
+    @Override
+    public boolean equals (Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Node other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode () {
+        return Objects.hashCode(id);
+    }
+
+    // own fields only: neither the parent nor the collections are loaded for printing
     @Override
     public String toString () {
-        String stringToPrint = "\nNode { " + "id=" + id + ", note=" + note;
-        // ...building the parent matter
-        if (parent != null) {
-            stringToPrint += ", parentId=" + parent.id + ", parentNote=" + parent.getNote();
-        } else {
-            stringToPrint += ", parentId=" + "no_parent";
+        StringBuilder builder = new StringBuilder(96)
+                .append("Node { id=").append(id)
+                .append(", note=").append(note)
+                .append(", active=").append(active)
+                .append(", effectivelyActive=").append(effectivelyActive)
+                .append(", path=").append(path)
+                .append(", sortKey=").append(sortKey)
+                .append(", depth=").append(depth)
+                .append(", descendants=").append(descendantCount);
+        if (Hibernate.isInitialized(subs)) {
+            builder.append(", subs=").append(subs.size());
         }
-        // ...building the subs
-        if (subs.size() > 0) {
-            stringToPrint += "\n       subs: { ";
-            for (Node node : this.subs) {
-                stringToPrint +=
-                           "\n               Sub { id=" + node.getId() + ", note=" + node.getNote()
-                           + ", volume of subs: " + node.getSubs().size() + " }";
-            }
-            stringToPrint += "\n       } (end of subs)";
-        } // if subs
-        return stringToPrint + "\n     } (end of node with id=" + this.id + ")";
+        return builder.append(" }").toString();
     }
 }
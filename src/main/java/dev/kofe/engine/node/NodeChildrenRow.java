@@ -0,0 +1,8 @@
+package dev.kofe.engine.node;
+
+/*
+ *  Children of one parent on one level summed up (bottom-up computation of the subtree aggregates)
+ *  [Kofe Simple Engine]
+ */
+
+public record NodeChildrenRow(Long parentId, Long children, Long activeChildren, Long descendants, Long activeDescendants) { }
@@ -1,11 +1,21 @@
 package dev.kofe.engine.node;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kofe.engine.common.CatalogVersion;
 import dev.kofe.engine.common.DoubleResult;
+import dev.kofe.engine.concurrency.Bulkhead;
 import dev.kofe.engine.mapper.Mapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,12 +37,54 @@ import org.slf4j.LoggerFactory;
  *                                          :   200 = ok
  *                                          :   204 = node has not been added
  *
+ *      POST /nodes/import                  :   bulk import of nodes from NDJSON (application/x-ndjson), one node per line:
+ *                                          :   { "ref": "r2", "parent": "r1", "note": "note", "active": true,
+ *                                          :     "descriptors": { "ENG": { "title": "..", "brief": "..", "fullDescr": ".." } } }
+ *                                          :   "parent" refers to a line above; "parentId" (instead of "parent") to an existing node
+ *                                          :   at most 'engine.import.refs.size' refs (1000000 by default) are kept in memory,
+ *                                          :   the least recently used first dropped: in larger files children should follow
+ *                                          :   their parents closely (e.g. depth-first order), a line whose parent ref
+ *                                          :   has been dropped fails as "parent not found"
+ *                                          :   response: { "imported": N, "failed": N, "errors": [ ... ] }
+ *                                          :   200 = ok (see failed / errors)
+ *                                          :   400 = the file can not be read
+ *
  *      GET /nodes                          :   get all nodes
  *                                          :   200 = ok
  *
  *      GET /nodes/active                   :   get all active nodes
  *                                          :   200 = ok
  *
+ *      GET /nodes/page?after=ID&limit=N   :   get a page of nodes ordered by ID (keyset pagination)
+ *                                          :   after (optional, 0 by default) = ID of the last node of the previous page
+ *                                          :   limit (optional, 100 by default, 500 max) = page size
+ *                                          :   nodes are flat: descriptors without subs, parent with ID only
+ *                                          :   200 = ok
+ *
+ *      GET /nodes/active/page?after=ID&limit=N :   the same for active nodes
+ *                                              :   200 = ok
+ *
+ *      GET /nodes/visible/page?after=ID&limit=N   :   storefront: page of visible nodes (active with all their ancestors),
+ *                                                  :   the same paging as GET /nodes/page
+ *                                                  :   200 = ok
+ *
+ *      GET /nodes/export?active=BOOL       :   all (or all active) nodes as one JSON array of flat nodes,
+ *                                          :   streamed page by page with constant memory
+ *                                          :   200 = ok
+ *
+ *      GET /nodes/lang/{code}              :   get all nodes in one language: id, parentId, note, active, title, brief
+ *                                          :   200 = ok
+ *
+ *      GET /nodes/active/lang/{code}       :   get all active nodes in one language
+ *                                          :   200 = ok
+ *
+ *      GET /nodes/visible/lang/{code}      :   storefront: get all visible nodes in one language
+ *                                          :   200 = ok
+ *
+ *      GET /nodes/{id}/lang/{code}         :   get node by ID in one language
+ *                                          :   200 = ok
+ *                                          :   404 = node (or its descriptor in the language) not found
+ *
  *      PUT /nodes/relocate/{idNode}/{idDest}   :   relocation node to new "parent node" (destination)
  *                                              :   200 = ok
  *                                              :   404 = node and/or destination node not found
@@ -47,6 +99,14 @@ import org.slf4j.LoggerFactory;
  *                                          :   200 = ok
  *                                          :   404 = node not found
  *
+ *      PUT /nodes/{id}/move?before=ID      :   move node among its siblings: right before the sibling ID
+ *      PUT /nodes/{id}/move?after=ID       :   ... or right after the sibling ID (one of the parameters is required)
+ *                                          :   the order is kept by gap-based sort keys: a move updates one row
+ *                                          :   200 = ok
+ *                                          :   400 = no parameter given
+ *                                          :   404 = node not found
+ *                                          :   409 = the node can not be moved there (not a sibling, see msg)
+ *
  *      PUT /nodes                          :   update node
  *                                          :   reflects on fields: descriptors, active status, note
  *                                          :   ignores the fields: subs, parent
@@ -55,13 +115,44 @@ import org.slf4j.LoggerFactory;
  *                                          :   400 = node has not been updated: the ID parameter is required
  *                                          :   404 = node not found
  *
- *      GET /nodes/{id}                     :   get node by ID
+ *      PUT /nodes/batch                    :   update many nodes in one transaction (as PUT /nodes for every item)
+ *                                          :   JSON: array of nodes
+ *                                          :   response: array of { "id": N, "done": true/false, "msg": "message" }
+ *                                          :   200 = ok (see done / msg of every item)
+ *
+ *      GET /nodes/{id}                     :   get node by ID with its whole subtree (as GET /nodes/{id}/tree)
  *                                          :   200 = ok
  *                                          :   404 = node not found
  *
+ *      GET /nodes/{id}/tree?depth=N&lang=CODE  :   get node with its subtree, loaded by a bounded number of queries
+ *                                              :   depth (optional) = levels of subs to include, whole subtree by default
+ *                                              :   lang (optional)  = language code of descriptors, all languages by default
+ *                                              :   200 = ok
+ *                                              :   404 = node not found
+ *
+ *      GET /nodes/{id}/children?after=ID&limit=N   :   get a page of subs in the sibling order (keyset pagination)
+ *                                                  :   after (optional, 0 by default) = ID of the last sub of the previous page
+ *                                                  :   limit (optional, 100 by default, 500 max) = page size
+ *                                                  :   subs are flat (as GET /nodes/page)
+ *                                                  :   200 = ok
+ *                                                  :   404 = node not found
+ *
  *      DELETE /nodes/{id}                  :   delete node by ID
  *                                          :   200 = ok
  *                                          :   404 = node not found
+ *
+ *      "active" is the own flag of a node; "effectivelyActive" is true when the node and all its ancestors are active
+ *      (maintained on toggles and relocations for the affected subtree only, indexed for the storefront listings).
+ *      Nodes carry "sortKey" and the subtree aggregates "depth" (0 for a root), "descendantCount"
+ *      and "activeDescendantCount" (descendants with the own active flag set): maintained on every write,
+ *      so counts of a branch need no subtree loading.
+ *
+ *      GET responses carry a strong ETag and Last-Modified of the catalog version (see CatalogVersion):
+ *      If-None-Match / If-Modified-Since are answered with 304 before the database is touched.
+ *      GET /nodes/{id}/lang/{code} is tagged with the version of the node itself.
+ *
+ *      Import, batch update, relocation, move and delete (admin) and the whole-catalog reads and export (bulk-read)
+ *      run in bulkheads: when 'engine.bulkhead.<name>.permits' is set, 503 (with Retry-After) when the bulkhead is full.
  */
 
 @RestController
@@ -69,13 +160,25 @@ import org.slf4j.LoggerFactory;
 public class NodeController {
 
     private final NodeService nodeService;
+    private final NodeImportService nodeImportService;
     private final Mapper mapper;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
     private static final Logger logger = LoggerFactory.getLogger(NodeController.class);
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
-    public NodeController (NodeService nodeService, Mapper mapper) {
+    public NodeController (NodeService nodeService,
+                           NodeImportService nodeImportService,
+                           Mapper mapper,
+                           ObjectMapper objectMapper,
+                           CatalogVersion catalogVersion) {
         this.nodeService = nodeService;
+        this.nodeImportService = nodeImportService;
         this.mapper = mapper;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
     }
 
     @PostMapping("")
@@ -88,19 +191,139 @@ public class NodeController {
         }
     }
 
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE })
+    @Bulkhead(Bulkhead.ADMIN)
+    public ResponseEntity<NodeImportResult> importNodes (InputStream input) {
+        try {
+            return new ResponseEntity<>(nodeImportService.importNodes(input), HttpStatus.OK);
+        } catch (IOException e) {
+            logger.error("Import: the file can not be read: " + e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @GetMapping("")
-    public ResponseEntity<List<NodeDto>> getAllNodes () {
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<NodeDto>> getAllNodes (WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         List<Node> nodes = nodeService.findAllNodes();
         return new ResponseEntity<>(Mapper.convertList(nodes, (item) -> mapper.convertToNodeDto(item)), HttpStatus.OK);
     }
 
     @GetMapping("/active")
-    public ResponseEntity<List<NodeDto>> getAllActiveNodes () {
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<NodeDto>> getAllActiveNodes (WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
         List<Node> nodes = nodeService.findAllActiveNodes();
         return new ResponseEntity<>(Mapper.convertList(nodes, (item) -> mapper.convertToNodeDto(item)), HttpStatus.OK);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<List<NodeDto>> getNodesPage (@RequestParam(defaultValue = "0") long after,
+                                                       @RequestParam(defaultValue = "100") int limit,
+                                                       WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Node> nodes = nodeService.findNodesPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), false);
+        return new ResponseEntity<>(Mapper.convertList(nodes, (item) -> mapper.convertToFlatNodeDto(item)), HttpStatus.OK);
+    }
+
+    @GetMapping("/active/page")
+    public ResponseEntity<List<NodeDto>> getActiveNodesPage (@RequestParam(defaultValue = "0") long after,
+                                                             @RequestParam(defaultValue = "100") int limit,
+                                                             WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Node> nodes = nodeService.findNodesPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), true);
+        return new ResponseEntity<>(Mapper.convertList(nodes, (item) -> mapper.convertToFlatNodeDto(item)), HttpStatus.OK);
+    }
+
+    @GetMapping("/visible/page")
+    public ResponseEntity<List<NodeDto>> getVisibleNodesPage (@RequestParam(defaultValue = "0") long after,
+                                                              @RequestParam(defaultValue = "100") int limit,
+                                                              WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Node> nodes = nodeService.findVisibleNodesPage(after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return new ResponseEntity<>(Mapper.convertList(nodes, (item) -> mapper.convertToFlatNodeDto(item)), HttpStatus.OK);
+    }
+
+    @GetMapping("/export")
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<StreamingResponseBody> exportNodes (@RequestParam(defaultValue = "false") boolean active) {
+        StreamingResponseBody body = (outputStream) -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                nodeService.forEachNodePage(active, (page) -> {
+                    try {
+                        for (Node node : page) {
+                            generator.writeObject(mapper.convertToFlatNodeDto(node));
+                        }
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/lang/{code}")
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<NodeLocalizedDto>> getAllNodesLocalized (@PathVariable String code,
+                                                                        WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(nodeService.findAllNodesLocalized(code), HttpStatus.OK);
+    }
+
+    @GetMapping("/active/lang/{code}")
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<NodeLocalizedDto>> getAllActiveNodesLocalized (@PathVariable String code,
+                                                                              WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(nodeService.findAllActiveNodesLocalized(code), HttpStatus.OK);
+    }
+
+    @GetMapping("/visible/lang/{code}")
+    @Bulkhead(Bulkhead.BULK_READ)
+    public ResponseEntity<List<NodeLocalizedDto>> getAllVisibleNodesLocalized (@PathVariable String code,
+                                                                               WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(nodeService.findAllVisibleNodesLocalized(code), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/lang/{code}")
+    public ResponseEntity<NodeLocalizedDto> getNodeLocalizedById (@PathVariable long id, @PathVariable String code,
+                                                                  WebRequest webRequest) {
+        if (catalogVersion.checkNodeNotModified(webRequest, id)) {
+            return null;
+        }
+        NodeLocalizedDto node = nodeService.findNodeLocalizedById(id, code);
+        if (node != null) {
+            return new ResponseEntity<>(node, HttpStatus.OK);
+        } else {
+            logger.error("Node with id=" + id + " and language " + code + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     @PutMapping("/relocate/{idNode}/{idDest}")
+    @Bulkhead(Bulkhead.ADMIN)
     public ResponseEntity<NodeDto> relocateNodeToNewParent (@PathVariable long idNode, @PathVariable long idDest) {
         Node relocatedNode = nodeService.relocateToAnotherParentNode(idNode, idDest);
         if (relocatedNode != null) {
@@ -111,6 +334,7 @@ public class NodeController {
     }
 
     @PutMapping("/relocate/{idNode}")
+    @Bulkhead(Bulkhead.ADMIN)
     public ResponseEntity<NodeDto> relocateNodeToRoot (@PathVariable long idNode) {
         Node relocatedNode = nodeService.relocateToAnotherParentNode(idNode, null);
         if (relocatedNode != null) {
@@ -120,6 +344,24 @@ public class NodeController {
         }
     }
 
+    @PutMapping("/{id}/move")
+    @Bulkhead(Bulkhead.ADMIN)
+    public ResponseEntity<NodeDto> moveNode (@PathVariable long id,
+                                             @RequestParam(required = false) Long before,
+                                             @RequestParam(required = false) Long after) {
+        if ((before == null) == (after == null)) {
+            logger.error("Node has not been moved: exactly one of the parameters 'before' and 'after' is required");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Node movedNode = nodeService.moveNode(id, before, after);
+        if (movedNode != null) {
+            return new ResponseEntity<>(mapper.convertToFlatNodeDto(movedNode),
+                    movedNode.isDone() ? HttpStatus.OK : HttpStatus.CONFLICT);
+        } else {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
     @PutMapping("")
     public ResponseEntity<NodeDto> partlyUpdateNode (@RequestBody NodeDto nodeDto) {
         if (nodeDto.getId() != null) {
@@ -136,6 +378,12 @@ public class NodeController {
         }
     }
 
+    @PutMapping("/batch")
+    @Bulkhead(Bulkhead.ADMIN)
+    public ResponseEntity<List<NodeUpdateResult>> partlyUpdateNodes (@RequestBody List<NodeDto> nodeDtos) {
+        return new ResponseEntity<>(nodeService.updateNodesByActiveStatusNoteDescriptors(nodeDtos), HttpStatus.OK);
+    }
+
     @GetMapping("/decision/{idNode}/{idDest}")
     public ResponseEntity<?> getRelocationDecision (@PathVariable long idNode, @PathVariable(required = false) long idDest) {
         DoubleResult<Boolean, Boolean> doubleResult = nodeService.getRelocationDecision(idNode, idDest);
@@ -152,10 +400,48 @@ public class NodeController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<NodeDto> getNodeById (@PathVariable long id) {
-        Node node = nodeService.findNodeById(id);
-        if (node != null) {
-            return new ResponseEntity<>(mapper.convertToNodeDto(node), HttpStatus.OK);
+    public ResponseEntity<NodeDto> getNodeById (@PathVariable long id, WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        // one subtree query, not node by node through the catalog cache
+        NodeTree nodeTree = nodeService.findNodeTree(id, null, null);
+        if (nodeTree != null) {
+            return new ResponseEntity<>(mapper.convertToNodeDto(nodeTree), HttpStatus.OK);
+        } else {
+            logger.error("Node with id=" + id + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<NodeDto> getNodeTreeById (@PathVariable long id,
+                                                    @RequestParam(required = false) Integer depth,
+                                                    @RequestParam(name = "lang", required = false) String languageCode,
+                                                    WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        NodeTree nodeTree = nodeService.findNodeTree(id, depth, languageCode);
+        if (nodeTree != null) {
+            return new ResponseEntity<>(mapper.convertToNodeDto(nodeTree), HttpStatus.OK);
+        } else {
+            logger.error("Node with id=" + id + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/{id}/children")
+    public ResponseEntity<List<NodeDto>> getChildrenPage (@PathVariable long id,
+                                                          @RequestParam(defaultValue = "0") long after,
+                                                          @RequestParam(defaultValue = "100") int limit,
+                                                          WebRequest webRequest) {
+        if (catalogVersion.checkNotModified(webRequest)) {
+            return null;
+        }
+        List<Node> children = nodeService.findChildrenPage(id, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (children != null) {
+            return new ResponseEntity<>(Mapper.convertList(children, (item) -> mapper.convertToFlatNodeDto(item)), HttpStatus.OK);
         } else {
             logger.error("Node with id=" + id + " not found");
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
@@ -163,6 +449,7 @@ public class NodeController {
     }
 
     @DeleteMapping("/{id}")
+    @Bulkhead(Bulkhead.ADMIN)
     public ResponseEntity<?> deleteNodeById (@PathVariable long id) {
         Node node = nodeService.findNodeById(id);
         if (node != null) {
@@ -22,6 +22,13 @@ public class NodeDto {
 
     private String note;
     private boolean active;
+    private Boolean effectivelyActive; // read-only: active with all the ancestors
+    private Long sortKey; // order among the siblings, read-only (see PUT /nodes/{id}/move)
+
+    // subtree aggregates, read-only
+    private Integer depth;
+    private Long descendantCount;
+    private Long activeDescendantCount;
 
     private boolean done = true; // service, transient
     private String msg; // service, transient
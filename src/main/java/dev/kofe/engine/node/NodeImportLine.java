@@ -0,0 +1,33 @@
+package dev.kofe.engine.node;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dev.kofe.engine.descriptor.DescriptorDto;
+import lombok.Data;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ *  One line of the NDJSON import file
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  ref          -- reference of the node inside the file (required, unique)
+ *  parent       -- ref of the parent node; the parent line has to be placed above
+ *  parentId     -- ID of an existing node to be the parent (used if "parent" is not set)
+ *  note, active -- as for POST /nodes
+ *  descriptors  -- texts by language code: { "ENG": { "title": "...", "brief": "...", "fullDescr": "..." } }
+ *                  languages without texts get empty descriptors
+ *  *****************************************************************
+ */
+
+@Data
+public class NodeImportLine {
+    private String ref;
+    @JsonProperty("parent") private String parentRef;
+    private Long parentId;
+    private String note;
+    private boolean active = true;
+    private Map<String, DescriptorDto> descriptors = new HashMap<>();
+
+    private long lineNumber; // service, not a part of the file
+    private String msg; // service, not a part of the file; the reason why the line can not be imported
+}
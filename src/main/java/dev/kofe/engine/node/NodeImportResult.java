@@ -0,0 +1,10 @@
+package dev.kofe.engine.node;
+
+import java.util.List;
+
+/*
+ *  Result of the import: counters and the first errors (line numbers refer to the file)
+ *  [Kofe Simple Engine]
+ */
+
+public record NodeImportResult(long imported, long failed, List<String> errors) { }
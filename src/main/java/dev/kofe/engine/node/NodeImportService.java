@@ -0,0 +1,324 @@
+package dev.kofe.engine.node;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.Descriptor;
+import dev.kofe.engine.descriptor.DescriptorDto;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Bulk import of nodes from NDJSON (one NodeImportLine per line)
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  The file is read in chunks of 'engine.batch.size' lines.
+ *  A chunk is parsed on 'engine.import.threads' threads (number of CPUs by default)
+ *  while the previous chunk is being persisted.
+ *  Every chunk is persisted in its own transaction: nodes and descriptors are inserted
+ *  as JDBC batches (IDs from the pooled sequences), then the persistence context is cleared.
+ *  Parents are resolved in memory: only ID, path and visibility of an imported node are kept by its ref,
+ *  for at most 'engine.import.refs.size' refs (the least recently used ones are dropped first),
+ *  so the memory of an import is bounded, not proportional to the number of lines.
+ *  A line whose parent ref has been dropped fails as "parent not found", and duplicate refs are detected
+ *  among the kept refs only: files with more lines should place children close to their parents
+ *  (depth-first order does) or use "parentId" of nodes imported before.
+ *  Imported nodes are appended to their siblings in the order of lines (last sort key kept by parent).
+ *  Subtree aggregates of the ancestors are summed up over the chunk and updated once per chunk.
+ *  A failed line (or a line whose parent failed) is skipped and reported.
+ *  *****************************************************************
+ */
+
+@Service
+public class NodeImportService {
+
+    private record NodeRef(Long id, String path, boolean visible) { }
+
+    private static class ImportState {
+        final Map<String, NodeRef> refs;
+        final Map<Long, NodeRef> existingRefs;
+        final Map<Long, Long> lastSortKeys; // by parent ID (null for roots); a dropped key is read from the DB again
+        final List<String> errors = new ArrayList<>();
+        long imported;
+        long failed;
+        long droppedRefs;
+
+        ImportState (int maxRefs) {
+            this.refs = bounded(maxRefs, () -> droppedRefs++);
+            this.existingRefs = bounded(maxRefs, () -> { });
+            this.lastSortKeys = bounded(maxRefs, () -> { });
+        }
+
+        // access-ordered map that drops the least recently used entry above maxSize
+        private static <K, V> Map<K, V> bounded (int maxSize, Runnable onDrop) {
+            return new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry (Map.Entry<K, V> eldest) {
+                    if (size() > maxSize) {
+                        onDrop.run();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private static final int MAX_ERRORS = 100;
+
+    private final NodeRepo nodeRepo;
+    private final LanguageRegistry languageRegistry;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExecutorService parseExecutor;
+    private final int threads;
+    private static final Logger logger = LoggerFactory.getLogger(NodeImportService.class);
+
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+    @Value("${engine.import.refs.size:1000000}") private int maxRefs;
+
+    @Autowired
+    public NodeImportService (NodeRepo nodeRepo,
+                              LanguageRegistry languageRegistry,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher,
+                              @Value("${engine.import.threads:0}") int threads) {
+        this.nodeRepo = nodeRepo;
+        this.languageRegistry = languageRegistry;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.threads = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        this.parseExecutor = Executors.newFixedThreadPool(this.threads);
+    }
+
+    @PreDestroy
+    public void shutdown () {
+        parseExecutor.shutdownNow();
+    }
+
+    public NodeImportResult importNodes (InputStream input) throws IOException {
+        ImportState state = new ImportState(Math.max(batchSize, maxRefs));
+        Map<String, Long> languageIds = new HashMap<>();
+        for (Language language : languageRegistry.findAll()) {
+            languageIds.put(language.getCode(), language.getId());
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long firstLineNumber = 1;
+        List<String> lines = readChunk(reader);
+        CompletableFuture<List<NodeImportLine>> parsing = parseAsync(lines, firstLineNumber);
+        while (parsing != null) {
+            // reading and parsing of the next chunk go on while the current one is persisted
+            firstLineNumber += lines.size();
+            lines = readChunk(reader);
+            CompletableFuture<List<NodeImportLine>> nextParsing = lines.isEmpty() ? null : parseAsync(lines, firstLineNumber);
+            persistChunk(parsing.join(), languageIds, state);
+            parsing = nextParsing;
+        }
+        logger.info("Import: " + state.imported + " node(s) imported, " + state.failed + " line(s) failed");
+
+        return new NodeImportResult(state.imported, state.failed, state.errors);
+    }
+
+    private List<String> readChunk (BufferedReader reader) throws IOException {
+        List<String> lines = new ArrayList<>(batchSize);
+        String line;
+        while (lines.size() < batchSize && (line = reader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    // parsing on several threads, the order of lines is kept
+    private CompletableFuture<List<NodeImportLine>> parseAsync (List<String> lines, long firstLineNumber) {
+        int sliceSize = Math.max(1, (lines.size() + threads - 1) / threads);
+        List<CompletableFuture<List<NodeImportLine>>> slices = new ArrayList<>();
+        for (int from = 0; from < lines.size(); from += sliceSize) {
+            int sliceFrom = from;
+            List<String> slice = lines.subList(from, Math.min(from + sliceSize, lines.size()));
+            slices.add(CompletableFuture.supplyAsync(() -> parseSlice(slice, firstLineNumber + sliceFrom), parseExecutor));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture[0])).thenApply((ignored) -> {
+            List<NodeImportLine> parsed = new ArrayList<>(lines.size());
+            for (CompletableFuture<List<NodeImportLine>> slice : slices) {
+                parsed.addAll(slice.join());
+            }
+            return parsed;
+        });
+    }
+
+    private List<NodeImportLine> parseSlice (List<String> lines, long firstLineNumber) {
+        List<NodeImportLine> parsed = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            NodeImportLine importLine;
+            try {
+                importLine = objectMapper.readValue(line, NodeImportLine.class);
+                if (importLine.getRef() == null) {
+                    importLine.setMsg("ref is required");
+                }
+            } catch (JsonProcessingException e) {
+                importLine = new NodeImportLine();
+                importLine.setMsg("malformed JSON: " + e.getOriginalMessage());
+            }
+            importLine.setLineNumber(firstLineNumber + i);
+            parsed.add(importLine);
+        }
+        return parsed;
+    }
+
+    private void persistChunk (List<NodeImportLine> lines, Map<String, Long> languageIds, ImportState state) {
+        Map<String, NodeRef> chunkRefs = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult((status) -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                Set<Long> affectedNodeIds = new LinkedHashSet<>();
+                DescendantCounts counts = new DescendantCounts();
+                for (NodeImportLine line : lines) {
+                    if (line.getMsg() != null) {
+                        fail(state, line, line.getMsg());
+                        continue;
+                    }
+                    if (state.refs.containsKey(line.getRef()) || chunkRefs.containsKey(line.getRef())) {
+                        fail(state, line, "duplicate ref " + line.getRef());
+                        continue;
+                    }
+                    // resolving the parent
+                    Long parentId = null;
+                    String parentPath = null;
+                    boolean parentVisible = true;
+                    if (line.getParentRef() != null) {
+                        NodeRef parentRef = chunkRefs.containsKey(line.getParentRef())
+                                ? chunkRefs.get(line.getParentRef())
+                                : state.refs.get(line.getParentRef());
+                        if (parentRef == null) {
+                            fail(state, line, "parent " + line.getParentRef() + " not found"
+                                    + (state.droppedRefs > 0 ? " (or no longer kept, see engine.import.refs.size)" : ""));
+                            continue;
+                        }
+                        parentId = parentRef.id();
+                        parentPath = parentRef.path();
+                        parentVisible = parentRef.visible();
+                    } else if (line.getParentId() != null) {
+                        parentId = line.getParentId();
+                        NodeRef parentRef = state.existingRefs.computeIfAbsent(parentId, (id) -> nodeRepo.findById(id)
+                                .map(parent -> new NodeRef(parent.getId(), parent.getPath(), Boolean.TRUE.equals(parent.getEffectivelyActive())))
+                                .orElse(null));
+                        if (parentRef == null) {
+                            fail(state, line, "parent node with id=" + parentId + " not found");
+                            continue;
+                        }
+                        parentPath = parentRef.path();
+                        parentVisible = parentRef.visible();
+                    }
+                    // the node
+                    Node node = new Node();
+                    node.setNote(line.getNote());
+                    node.setActive(line.isActive());
+                    if (parentId != null) {
+                        node.setParent(entityManager.getReference(Node.class, parentId));
+                    }
+                    node.setSortKey(nextSortKey(state, parentId));
+                    node.setDepth(parentPath == null ? 0 : NodePath.levelOf(parentPath) + 1);
+                    node.setDescendantCount(0L);
+                    node.setActiveDescendantCount(0L);
+                    node.setEffectivelyActive(parentVisible && node.isActive());
+                    entityManager.persist(node);
+                    node.setPath(NodePath.of(parentPath, node.getId()));
+                    counts.add(node.getPath(), 1, node.isActive() ? 1 : 0);
+                    // the descriptors: one for each language
+                    for (Map.Entry<String, Long> language : languageIds.entrySet()) {
+                        Descriptor descriptor = new Descriptor();
+                        DescriptorDto texts = line.getDescriptors().get(language.getKey());
+                        if (texts != null) {
+                            descriptor.setTitle(texts.getTitle());
+                            descriptor.setBrief(texts.getBrief());
+                            descriptor.setFullDescr(texts.getFullDescr());
+                        }
+                        descriptor.setLanguage(entityManager.getReference(Language.class, language.getValue()));
+                        descriptor.setNode(node);
+                        entityManager.persist(descriptor);
+                    }
+                    for (String code : line.getDescriptors().keySet()) {
+                        if (!languageIds.containsKey(code)) {
+                            error(state, "line " + line.getLineNumber() + ": unknown language " + code + " ignored");
+                        }
+                    }
+                    chunkRefs.put(line.getRef(), new NodeRef(node.getId(), node.getPath(), node.getEffectivelyActive()));
+                    affectedNodeIds.add(node.getId());
+                    if (parentId != null) {
+                        affectedNodeIds.add(parentId);
+                    }
+                }
+                entityManager.flush();
+                // the aggregates of the ancestors: one bulk update per distinct change, not per node
+                affectedNodeIds.addAll(counts.ancestorIds());
+                counts.apply(nodeRepo, batchSize);
+                entityManager.clear();
+                eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_ADDED, affectedNodeIds.toArray(new Long[0])));
+            });
+            state.refs.putAll(chunkRefs);
+            state.imported += chunkRefs.size();
+        } catch (RuntimeException e) {
+            logger.error("Import: chunk has not been persisted", e);
+            state.failed += chunkRefs.size();
+            error(state, "lines " + lines.get(0).getLineNumber() + "-" + lines.get(lines.size() - 1).getLineNumber()
+                    + ": chunk has not been persisted: " + e.getMessage());
+        }
+    }
+
+    private long nextSortKey (ImportState state, Long parentId) {
+        Long lastKey = state.lastSortKeys.containsKey(parentId)
+                ? state.lastSortKeys.get(parentId)
+                : (parentId != null ? nodeRepo.findMaxSubSortKey(parentId) : nodeRepo.findMaxRootSortKey());
+        long sortKey = SiblingOrder.after(lastKey);
+        state.lastSortKeys.put(parentId, sortKey);
+        return sortKey;
+    }
+
+    private void fail (ImportState state, NodeImportLine line, String msg) {
+        state.failed++;
+        error(state, "line " + line.getLineNumber() + ": " + msg);
+    }
+
+    private void error (ImportState state, String msg) {
+        if (state.errors.size() < MAX_ERRORS) {
+            state.errors.add(msg);
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package dev.kofe.engine.node;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ *  Node in one language (storefront projection)
+ *  [Kofe Simple Engine]
+ *  selected straight from the database: only the title and brief of the requested language,
+ *  the parent is referenced by its ID
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NodeLocalizedDto {
+    private Long id;
+    private Long parentId;
+    private String note;
+    private boolean active;
+    private String title;
+    private String brief;
+}
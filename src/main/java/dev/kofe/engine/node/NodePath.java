@@ -0,0 +1,69 @@
+package dev.kofe.engine.node;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ *  Materialized path of the node
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  path is a chain of IDs from the root node down to the node itself,
+ *  every ID is wrapped by separators: "/1/5/9/" (node 9 under 5 under 1)
+ *
+ *  X is under Y    -- path of X contains the segment "/Y/"
+ *  subtree of Y    -- all paths starting with the path of Y
+ *  ancestors of X  -- IDs of the path of X except the last one
+ *  *****************************************************************
+ */
+
+final class NodePath {
+
+    static final String SEPARATOR = "/";
+
+    private NodePath () { }
+
+    static String of (Node parent, long id) {
+        return of(parent != null ? parent.getPath() : null, id);
+    }
+
+    static String of (String parentPath, long id) {
+        return (parentPath != null ? parentPath : SEPARATOR) + id + SEPARATOR;
+    }
+
+    static String segment (long id) {
+        return SEPARATOR + id + SEPARATOR;
+    }
+
+    // level of the node in the tree: 0 for a root node
+    static int levelOf (String path) {
+        int separators = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                separators++;
+            }
+        }
+        return separators - 2;
+    }
+
+    // ID of the node itself: the last one of the path
+    static long idOf (String path) {
+        int to = path.length() - 1;
+        return Long.parseLong(path, path.lastIndexOf('/', to - 1) + 1, to, 10);
+    }
+
+    // IDs of the ancestors from the root down to the parent (empty for a root node)
+    static List<Long> ancestorIdsOf (String path) {
+        List<Long> ids = new ArrayList<>();
+        int from = 1;
+        int to;
+        while ((to = path.indexOf('/', from)) > 0) {
+            ids.add(Long.parseLong(path, from, to, 10));
+            from = to + 1;
+        }
+        if (!ids.isEmpty()) {
+            ids.remove(ids.size() - 1);
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,44 @@
+package dev.kofe.engine.node;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/*
+ *  Startup check of the ancestry index and the sibling order
+ *  [Kofe Simple Engine]
+ *  nodes without a materialized path (created before the index existed) get their paths on start,
+ *  nodes without a sort key get one by their ID (the order they have been listed in before),
+ *  the subtree aggregates (depth, descendant counts) and the effective visibility are computed once the paths are there
+ */
+
+@Component
+public class NodePathInitializer {
+
+    private final NodeRepo nodeRepo;
+    private final NodeService nodeService;
+
+    @Autowired
+    public NodePathInitializer (NodeRepo nodeRepo, NodeService nodeService) {
+        this.nodeRepo = nodeRepo;
+        this.nodeService = nodeService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingPaths () {
+        if (nodeRepo.existsByPathIsNull()) {
+            nodeService.rebuildMaterializedPaths();
+        }
+        if (nodeRepo.existsBySortKeyIsNull()) {
+            nodeService.fillMissingSortKeys();
+        }
+        if (nodeRepo.existsByDescendantCountIsNull()) {
+            nodeService.rebuildSubtreeAggregates();
+        }
+        if (nodeRepo.existsByEffectivelyActiveIsNull()) {
+            nodeService.rebuildEffectivelyActive();
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package dev.kofe.engine.node;
+
+/*
+ *  Node without a materialized path and the path of its parent (backfill of the ancestry index)
+ *  [Kofe Simple Engine]
+ */
+
+public record NodePathRow(Long id, String parentPath) { }
@@ -1,6 +1,10 @@
 package dev.kofe.engine.node;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -9,4 +13,165 @@ public interface NodeRepo extends JpaRepository <Node, Long> {
 
     List<Node> findAllByActive(boolean active);
     Node findByNote (String note);
+
+    // keyset pagination on ID
+    List<Node> findByIdGreaterThanOrderByIdAsc (long after, Pageable pageable);
+    List<Node> findByActiveAndIdGreaterThanOrderByIdAsc (boolean active, long after, Pageable pageable);
+    List<Node> findByEffectivelyActiveTrueAndIdGreaterThanOrderByIdAsc (long after, Pageable pageable);
+
+    @Query("select new dev.kofe.engine.node.NodeRow(n.id, p.id, n.note, n.active, n.sortKey) from Node n left join n.parent p "
+            + "where n.id > :after order by n.id")
+    List<NodeRow> findRowsAfter (@Param("after") long after, Pageable pageable);
+
+    // nodes still without a descriptor of the language (expansion of a new language)
+    @Query("select n.id from Node n where n.id > :after and not exists "
+            + "(select d.id from Descriptor d where d.node = n and d.language.id = :languageId) order by n.id")
+    List<Long> findIdsWithoutDescriptorAfter (@Param("languageId") long languageId,
+                                              @Param("after") long after,
+                                              Pageable pageable);
+
+    // language-scoped projections
+    String LOCALIZED_SELECT = "select new dev.kofe.engine.node.NodeLocalizedDto(n.id, p.id, n.note, n.active, d.title, d.brief) "
+            + "from Descriptor d join d.node n left join n.parent p join d.language l where l.code = :code ";
+
+    @Query(LOCALIZED_SELECT + "order by n.id")
+    List<NodeLocalizedDto> findAllLocalized (@Param("code") String code);
+
+    @Query(LOCALIZED_SELECT + "and n.active = true order by n.id")
+    List<NodeLocalizedDto> findAllActiveLocalized (@Param("code") String code);
+
+    @Query(LOCALIZED_SELECT + "and n.effectivelyActive = true order by n.id")
+    List<NodeLocalizedDto> findAllEffectivelyActiveLocalized (@Param("code") String code);
+
+    @Query(LOCALIZED_SELECT + "and n.id = :id")
+    NodeLocalizedDto findLocalizedById (@Param("id") long id, @Param("code") String code);
+
+    // ancestry index (materialized path)
+    boolean existsByIdAndPathContaining (long id, String segment);
+    boolean existsByPathIsNull ();
+
+    @Query("select n from Node n where n.path like concat((select r.path from Node r where r.id = :id), '%') order by n.path")
+    List<Node> findSubtree (@Param("id") long id);
+
+    // the upper levels of the subtree only: at most 'levels' below the node (by the stored depth)
+    @Query("select n from Node n where n.path like concat((select r.path from Node r where r.id = :id), '%') "
+            + "and n.depth <= (select r.depth from Node r where r.id = :id) + :levels order by n.path")
+    List<Node> findSubtreeLevels (@Param("id") long id, @Param("levels") int levels);
+
+    @Query("select n.id from Node n where n.path like concat((select r.path from Node r where r.id = :id), '%')")
+    List<Long> findSubtreeIds (@Param("id") long id);
+
+    // sibling order, index (parent_id, sort_key); roots have their own variants (parent is null)
+    @Query("select n from Node n where n.parent.id = :parentId and (n.sortKey > :sortKey or (n.sortKey = :sortKey and n.id > :id)) "
+            + "order by n.sortKey, n.id")
+    List<Node> findSubsAfter (@Param("parentId") long parentId, @Param("sortKey") long sortKey, @Param("id") long id,
+                              Pageable pageable);
+
+    @Query("select max(n.sortKey) from Node n where n.parent.id = :parentId")
+    Long findMaxSubSortKey (@Param("parentId") long parentId);
+
+    @Query("select max(n.sortKey) from Node n where n.parent is null")
+    Long findMaxRootSortKey ();
+
+    @Query("select n.sortKey from Node n where n.parent.id = :parentId and n.sortKey < :sortKey and n.id <> :excludedId "
+            + "order by n.sortKey desc")
+    List<Long> findSubSortKeysBefore (@Param("parentId") long parentId, @Param("sortKey") long sortKey,
+                                      @Param("excludedId") long excludedId, Pageable pageable);
+
+    @Query("select n.sortKey from Node n where n.parent is null and n.sortKey < :sortKey and n.id <> :excludedId "
+            + "order by n.sortKey desc")
+    List<Long> findRootSortKeysBefore (@Param("sortKey") long sortKey, @Param("excludedId") long excludedId, Pageable pageable);
+
+    @Query("select n.sortKey from Node n where n.parent.id = :parentId and n.sortKey > :sortKey and n.id <> :excludedId "
+            + "order by n.sortKey")
+    List<Long> findSubSortKeysAfter (@Param("parentId") long parentId, @Param("sortKey") long sortKey,
+                                     @Param("excludedId") long excludedId, Pageable pageable);
+
+    @Query("select n.sortKey from Node n where n.parent is null and n.sortKey > :sortKey and n.id <> :excludedId "
+            + "order by n.sortKey")
+    List<Long> findRootSortKeysAfter (@Param("sortKey") long sortKey, @Param("excludedId") long excludedId, Pageable pageable);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.sortKey = n.sortKey + :gap where n.parent.id = :parentId and n.sortKey >= :from "
+            + "and n.id <> :excludedId")
+    int shiftSubSortKeys (@Param("parentId") long parentId, @Param("from") long from, @Param("gap") long gap,
+                          @Param("excludedId") long excludedId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.sortKey = n.sortKey + :gap where n.parent is null and n.sortKey >= :from and n.id <> :excludedId")
+    int shiftRootSortKeys (@Param("from") long from, @Param("gap") long gap, @Param("excludedId") long excludedId);
+
+    boolean existsBySortKeyIsNull ();
+
+    // nodes created before the sibling order keep the order by ID
+    @Modifying
+    @Query("update Node n set n.sortKey = n.id * :gap where n.sortKey is null")
+    int fillSortKeys (@Param("gap") long gap);
+
+    // subtree aggregates (see DescendantCounts)
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.descendantCount = n.descendantCount + :count, "
+            + "n.activeDescendantCount = n.activeDescendantCount + :activeCount where n.id in :ids")
+    int addToDescendantCounts (@Param("ids") List<Long> ids, @Param("count") long count, @Param("activeCount") long activeCount);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.depth = n.depth + :delta where n.path like concat(:prefix, '%')")
+    int shiftSubtreeDepth (@Param("prefix") String prefix, @Param("delta") int delta);
+
+    boolean existsByDescendantCountIsNull ();
+
+    // backfill: depth from the path, counts reset, then summed up level by level from the deepest one
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.depth = length(n.path) - length(replace(n.path, '/', '')) - 2, "
+            + "n.descendantCount = 0, n.activeDescendantCount = 0")
+    int resetSubtreeAggregates ();
+
+    @Query("select max(n.depth) from Node n")
+    Integer findMaxDepth ();
+
+    @Query("select new dev.kofe.engine.node.NodeChildrenRow(p.id, count(n.id), "
+            + "sum(case when n.active = true then 1L else 0L end), sum(n.descendantCount), sum(n.activeDescendantCount)) "
+            + "from Node n join n.parent p where n.depth = :depth and p.id > :after group by p.id order by p.id")
+    List<NodeChildrenRow> findChildrenRowsAfter (@Param("depth") int depth, @Param("after") long after, Pageable pageable);
+
+    // effective visibility, recomputed by the path prefix of a subtree
+    @Query("select n.effectivelyActive from Node n where n.id = :id")
+    Boolean findEffectivelyActiveById (@Param("id") long id);
+
+    @Query("select n.path from Node n where n.path like concat(:prefix, '%') and n.active = false order by n.path")
+    List<String> findInactivePathsInSubtree (@Param("prefix") String prefix);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Node n set n.effectivelyActive = :value where n.path like concat(:prefix, '%')")
+    int setSubtreeEffectivelyActive (@Param("prefix") String prefix, @Param("value") boolean value);
+
+    boolean existsByEffectivelyActiveIsNull ();
+
+    // entities of the subtree loaded before would keep their old paths: the persistence context is cleared
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Node n set n.path = concat(:newPrefix, substring(n.path, length(:oldPrefix) + 1)) "
+            + "where n.path like concat(:oldPrefix, '%')")
+    int replacePathPrefix (@Param("oldPrefix") String oldPrefix, @Param("newPrefix") String newPrefix);
+
+    // set-based removal of a subtree (by the path prefix): descriptors, parent links inside the subtree, nodes
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Descriptor d where d.node.id in (select n.id from Node n where n.path like concat(:prefix, '%'))")
+    int deleteSubtreeDescriptors (@Param("prefix") String prefix);
+
+    @Modifying
+    @Query("update Node n set n.parent = null where n.path like concat(:prefix, '%')")
+    int detachSubtree (@Param("prefix") String prefix);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Node n where n.path like concat(:prefix, '%')")
+    int deleteSubtree (@Param("prefix") String prefix);
+
+    @Modifying
+    @Query("update Node n set n.path = concat('/', cast(n.id as String), '/') where n.path is null and n.parent is null")
+    int fillRootPaths ();
+
+    // nodes whose parent has a path already; the paths are written through the entities (no self-referencing update)
+    @Query("select new dev.kofe.engine.node.NodePathRow(n.id, p.path) from Node n join n.parent p "
+            + "where n.path is null and p.path is not null and n.id > :after order by n.id")
+    List<NodePathRow> findPathRowsToFillAfter (@Param("after") long after, Pageable pageable);
 }
@@ -0,0 +1,8 @@
+package dev.kofe.engine.node;
+
+/*
+ *  Own fields of the node selected without loading entities (source for in-memory snapshots)
+ *  [Kofe Simple Engine]
+ */
+
+public record NodeRow(Long id, Long parentId, String note, boolean active, Long sortKey) { }
@@ -2,14 +2,32 @@ package dev.kofe.engine.node;
 
 import dev.kofe.engine.common.DoubleResult;
 import java.util.List;
+import java.util.function.Consumer;
 
-public interface NodeService  {
+public interface NodeService {
     List<Node> findAllNodes();
     List<Node> findAllActiveNodes();
+    List<Node> findNodesPage (long after, int limit, boolean activeOnly);
+    void forEachNodePage (boolean activeOnly, Consumer<List<Node>> pageConsumer);
     Node addNewNodeAndExpandEmptyDescriptors (NodeDto nodeToAdd);
     DoubleResult<Boolean, Boolean> getRelocationDecision (long idNode, long idDest);
     Node relocateToAnotherParentNode (Long nodeToRelocateId, Long destinationParentId);
+    Node moveNode (long id, Long beforeId, Long afterId);
+    List<Node> findChildrenPage (long parentId, long afterId, int limit);
     Node updateNodeByActiveStatusNoteDescriptors(NodeDto nodeDto);
+    List<NodeUpdateResult> updateNodesByActiveStatusNoteDescriptors (List<NodeDto> nodeDtos);
     Node findNodeById (long id);
     void deleteNodeById(long id);
+    boolean isNodeUnder (long idNode, long idAncestor);
+    List<Node> findSubtree (long id);
+    NodeTree findNodeTree (long id, Integer depth, String languageCode);
+    List<NodeLocalizedDto> findAllNodesLocalized (String languageCode);
+    List<NodeLocalizedDto> findAllActiveNodesLocalized (String languageCode);
+    List<Node> findVisibleNodesPage (long after, int limit);
+    List<NodeLocalizedDto> findAllVisibleNodesLocalized (String languageCode);
+    NodeLocalizedDto findNodeLocalizedById (long id, String languageCode);
+    int rebuildMaterializedPaths ();
+    int fillMissingSortKeys ();
+    int rebuildSubtreeAggregates ();
+    int rebuildEffectivelyActive ();
 }
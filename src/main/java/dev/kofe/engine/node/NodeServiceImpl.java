@@ -1,15 +1,34 @@
 package dev.kofe.engine.node;
 
+import dev.kofe.engine.common.CatalogEvent;
 import dev.kofe.engine.common.DoubleResult;
 import dev.kofe.engine.descriptor.Descriptor;
 import dev.kofe.engine.descriptor.DescriptorDto;
 import dev.kofe.engine.descriptor.DescriptorService;
 import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
 import dev.kofe.engine.language.LanguageRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,16 +37,26 @@ public class NodeServiceImpl implements NodeService {
 
     private final NodeRepo nodeRepo;
     private final LanguageRepo languageRepo;
+    private final LanguageRegistry languageRegistry;
     private final DescriptorService descriptorService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(NodeServiceImpl.class);
 
+    @PersistenceContext private EntityManager entityManager;
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+
     @Autowired
     public NodeServiceImpl(NodeRepo nodeRepo,
                            LanguageRepo languageRepo,
-                           DescriptorService descriptorService) {
+                           LanguageRegistry languageRegistry,
+                           DescriptorService descriptorService,
+                           ApplicationEventPublisher eventPublisher) {
         this.nodeRepo = nodeRepo;
         this.languageRepo = languageRepo;
+        this.languageRegistry = languageRegistry;
         this.descriptorService = descriptorService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Node> findAllNodes () {
@@ -38,6 +67,54 @@ public class NodeServiceImpl implements NodeService {
         return nodeRepo.findAllByActive(true);
     }
 
+    // keyset page: nodes with ID greater than 'after', ordered by ID
+    public List<Node> findNodesPage (long after, int limit, boolean activeOnly) {
+        PageRequest page = PageRequest.of(0, limit);
+        return activeOnly
+                ? nodeRepo.findByActiveAndIdGreaterThanOrderByIdAsc(true, after, page)
+                : nodeRepo.findByIdGreaterThanOrderByIdAsc(after, page);
+    }
+
+    /*
+     *  Walks all nodes page by page ('engine.batch.size' nodes) inside one transaction.
+     *  The consumer may touch the descriptors of the page (one batch load per page);
+     *  after every page the persistence context is cleared, so memory does not grow with the catalog.
+     */
+    @Transactional
+    public void forEachNodePage (boolean activeOnly, Consumer<List<Node>> pageConsumer) {
+        long after = 0;
+        List<Node> page;
+        do {
+            page = findNodesPage(after, batchSize, activeOnly);
+            if (!page.isEmpty()) {
+                pageConsumer.accept(page);
+                after = page.get(page.size() - 1).getId();
+            }
+            entityManager.clear();
+        } while (page.size() == batchSize);
+    }
+
+    public List<NodeLocalizedDto> findAllNodesLocalized (String languageCode) {
+        return nodeRepo.findAllLocalized(languageCode);
+    }
+
+    public List<NodeLocalizedDto> findAllActiveNodesLocalized (String languageCode) {
+        return nodeRepo.findAllActiveLocalized(languageCode);
+    }
+
+    // storefront: nodes visible with their ancestors (by the maintained flag and its index, no tree walks)
+    public List<Node> findVisibleNodesPage (long after, int limit) {
+        return nodeRepo.findByEffectivelyActiveTrueAndIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+    }
+
+    public List<NodeLocalizedDto> findAllVisibleNodesLocalized (String languageCode) {
+        return nodeRepo.findAllEffectivelyActiveLocalized(languageCode);
+    }
+
+    public NodeLocalizedDto findNodeLocalizedById (long id, String languageCode) {
+        return nodeRepo.findLocalizedById(id, languageCode);
+    }
+
     @Transactional
     public Node addNewNodeAndExpandEmptyDescriptors (NodeDto nodeToAdd) {
         Node parent = null;
@@ -53,19 +130,31 @@ public class NodeServiceImpl implements NodeService {
         Node newNode = new Node();
         newNode.setActive(nodeToAdd.isActive());
         newNode.setNote(nodeToAdd.getNote());
+        newNode.setSortKey(SiblingOrder.after(lastSortKeyOf(parent == null ? null : parent.getId())));
+        newNode.setDepth(parent == null ? 0 : parent.getDepth() + 1);
+        newNode.setDescendantCount(0L);
+        newNode.setActiveDescendantCount(0L);
+        newNode.setEffectivelyActive(newNode.isActive() && (parent == null || Boolean.TRUE.equals(parent.getEffectivelyActive())));
         nodeRepo.save(newNode);
+        newNode.setPath(NodePath.of(parent, newNode.getId()));
         if (parent != null) {
             parent.addSubNode(newNode);
         }
-        // Expanding the descriptors
-        List<Language> languages = languageRepo.findAll();
-        for (Language language : languages) {
+        // the aggregates of all ancestors
+        DescendantCounts counts = new DescendantCounts().add(newNode.getPath(), 1, newNode.isActive() ? 1 : 0);
+        List<Long> affectedNodeIds = counts.ancestorIds();
+        counts.apply(nodeRepo, batchSize);
+        affectedNodeIds.add(newNode.getId());
+        // Expanding the descriptors (language IDs from the registry, references instead of loaded languages)
+        for (Long languageId : languageRegistry.findAllIds()) {
+            Language language = languageRepo.getReferenceById(languageId);
             newNode.addDescriptor(descriptorService.createNewDescriptorForLanguage(language));
         }
         // final matters
         newNode.setMsg( "Node has been added. Parent: "
                 + ((parent == null) ? "null" : ("id=" + nodeToAdd.getNodeParentDto().getId()))
                 + ". Expanded " + newNode.getDescriptors().size() + " descriptor(s)" );
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_ADDED, affectedNodeIds.toArray(new Long[0])));
 
         return newNode;
     }
@@ -74,18 +163,8 @@ public class NodeServiceImpl implements NodeService {
         boolean decision = true;
         if (nodeId != null) {
             if (destinationParentId != null) {
-                Node parent = nodeRepo.findById(destinationParentId).orElse(null);
-                while (parent != null) {
-                    Long parentId = parent.getId();
-                    if (parentId.equals(nodeId)) {
-                        decision = false;
-                        break;
-                    }
-                    if (parent.getParent() == null) {
-                        break;
-                    }
-                    parent = nodeRepo.findById(parent.getParent().getId()).orElse(null);
-                }
+                // destination is the node itself or lies in its subtree: the path of destination contains "/nodeId/"
+                decision = !nodeRepo.existsByIdAndPathContaining(destinationParentId, NodePath.segment(nodeId));
             }
         } else {
             logger.warn("Relocate: node ID is null");
@@ -126,11 +205,42 @@ public class NodeServiceImpl implements NodeService {
                             break;
                         }
                     }
-                    // get current parent
+                    // the node goes last among the new siblings
+                    nodeToRelocate.setSortKey(SiblingOrder.after(lastSortKeyOf(destinationParentId)));
+                    // get current parent; subs of the parents are touched only if they are loaded already
+                    Node oldParent = nodeToRelocate.getParent();
+                    Long oldParentId = (oldParent == null) ? null : oldParent.getId();
+                    if (oldParent != null) {
+                        oldParent.removeSubNode(nodeToRelocate);
+                    }
                     if (destinationParent != null) {
                         destinationParent.addSubNode(nodeToRelocate);
                     }
-                    nodeToRelocate.setParent(destinationParent);
+                    // re-root the materialized paths of the whole subtree by one bulk update
+                    String oldPath = nodeToRelocate.getPath();
+                    String newPath = NodePath.of(destinationParent, nodeToRelocate.getId());
+                    nodeRepo.replacePathPrefix(oldPath, newPath); // clears the persistence context
+                    // the aggregates: depth of the subtree, counts of the old ancestors and the new ones
+                    int depthDelta = NodePath.levelOf(newPath) - NodePath.levelOf(oldPath);
+                    if (depthDelta != 0) {
+                        nodeRepo.shiftSubtreeDepth(newPath, depthDelta);
+                    }
+                    long count = 1 + nodeToRelocate.getDescendantCount();
+                    long activeCount = nodeToRelocate.getActiveDescendantCount() + (nodeToRelocate.isActive() ? 1 : 0);
+                    DescendantCounts counts = new DescendantCounts()
+                            .add(oldPath, -count, -activeCount)
+                            .add(newPath, count, activeCount);
+                    List<Long> affectedNodeIds = new ArrayList<>(nodeRepo.findSubtreeIds(nodeToRelocate.getId()));
+                    affectedNodeIds.addAll(counts.ancestorIds());
+                    affectedNodeIds.add(oldParentId);
+                    affectedNodeIds.add(destinationParentId);
+                    counts.apply(nodeRepo, batchSize);
+                    // visibility of the subtree under the new ancestors
+                    recomputeEffectivelyActive(newPath);
+                    // read again: new path and aggregates (the entity loaded above is detached)
+                    nodeToRelocate = nodeRepo.findById(nodeToRelocateId).orElse(null);
+                    eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_RELOCATED,
+                            affectedNodeIds.toArray(new Long[0])));
                     break;
                 } while (true);
             } else {
@@ -145,13 +255,135 @@ public class NodeServiceImpl implements NodeService {
         return nodeToRelocate;
     }
 
+    /*
+     *  Moves the node among its siblings: right before the sibling 'beforeId' or right after the sibling 'afterId'.
+     *  The node gets the middle key between its new neighbours, so only its own row is updated;
+     *  the following siblings are shifted by one bulk update only when there is no key left in between.
+     */
+    @Transactional
+    public Node moveNode (long id, Long beforeId, Long afterId) {
+        Node node = nodeRepo.findById(id).orElse(null);
+        if (node == null) {
+            logger.error("Move: node with id=" + id + " not found");
+            return null;
+        }
+        Long anchorId = (beforeId != null) ? beforeId : afterId;
+        Node anchor = (anchorId == null) ? null : nodeRepo.findById(anchorId).orElse(null);
+        Long parentId = parentIdOf(node);
+        if (anchor == null || anchor.getId().equals(node.getId()) || !Objects.equals(parentIdOf(anchor), parentId)) {
+            node.setDone(false);
+            node.setMsg("It's no possible to move the node with id=" + id + " next to the node with id=" + anchorId
+                    + ": the nodes must be different siblings");
+            logger.warn(node.getMsg());
+            return node;
+        }
+        long lower;
+        long upper;
+        if (beforeId != null) {
+            upper = anchor.getSortKey();
+            Long previous = firstOf(parentId == null
+                    ? nodeRepo.findRootSortKeysBefore(upper, id, PageRequest.of(0, 1))
+                    : nodeRepo.findSubSortKeysBefore(parentId, upper, id, PageRequest.of(0, 1)));
+            lower = (previous != null) ? previous : 0;
+        } else {
+            lower = anchor.getSortKey();
+            Long next = firstOf(parentId == null
+                    ? nodeRepo.findRootSortKeysAfter(lower, id, PageRequest.of(0, 1))
+                    : nodeRepo.findSubSortKeysAfter(parentId, lower, id, PageRequest.of(0, 1)));
+            upper = (next != null) ? next : SiblingOrder.after(lower);
+        }
+        if (!SiblingOrder.hasRoomBetween(lower, upper)) {
+            int shifted = (parentId == null)
+                    ? nodeRepo.shiftRootSortKeys(upper, SiblingOrder.GAP, id)
+                    : nodeRepo.shiftSubSortKeys(parentId, upper, SiblingOrder.GAP, id);
+            logger.debug("Move: " + shifted + " sibling(s) of the node id=" + id + " have been shifted");
+            upper += SiblingOrder.GAP;
+        }
+        node.setSortKey(SiblingOrder.between(lower, upper));
+        node.setMsg("Node has been moved " + (beforeId != null ? "before" : "after") + " the node with id=" + anchorId);
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_RELOCATED, node.getId(), parentId, parentId));
+
+        return node;
+    }
+
+    // keyset page of the subs in the sibling order; 'afterId' is the last sub of the previous page (0 for the first page)
+    public List<Node> findChildrenPage (long parentId, long afterId, int limit) {
+        if (!nodeRepo.existsById(parentId)) {
+            logger.warn("Node with id=" + parentId + " not found");
+            return null;
+        }
+        long afterSortKey = Long.MIN_VALUE;
+        if (afterId != 0) {
+            Node after = nodeRepo.findById(afterId).orElse(null);
+            if (after == null || !Objects.equals(parentIdOf(after), parentId)) {
+                logger.warn("Node with id=" + afterId + " is not a sub of the node with id=" + parentId);
+                return List.of();
+            }
+            afterSortKey = after.getSortKey();
+        }
+        return nodeRepo.findSubsAfter(parentId, afterSortKey, afterId, PageRequest.of(0, limit));
+    }
+
+    /*
+     *  Recomputes the effective visibility of the subtree with the path: every node of it is set to the visibility
+     *  of the parent of the subtree, then (if that is visible) the subtrees of the inactive nodes are hidden,
+     *  the top-most ones only (paths with a common prefix are contiguous in the path order).
+     *  A bounded number of statements on the path index, no tree walks; returns the visibility of the parent.
+     */
+    private boolean recomputeEffectivelyActive (String path) {
+        List<Long> ancestorIds = NodePath.ancestorIdsOf(path);
+        boolean parentVisible = ancestorIds.isEmpty()
+                || Boolean.TRUE.equals(nodeRepo.findEffectivelyActiveById(ancestorIds.get(ancestorIds.size() - 1)));
+        updateEffectivelyActive(path, parentVisible);
+        return parentVisible;
+    }
+
+    private int updateEffectivelyActive (String prefix, boolean parentVisible) {
+        int updated = nodeRepo.setSubtreeEffectivelyActive(prefix, parentVisible);
+        if (parentVisible) {
+            String hidden = null;
+            for (String inactivePath : nodeRepo.findInactivePathsInSubtree(prefix)) {
+                if (hidden == null || !inactivePath.startsWith(hidden)) {
+                    nodeRepo.setSubtreeEffectivelyActive(inactivePath, false);
+                    hidden = inactivePath;
+                }
+            }
+        }
+        return updated;
+    }
+
+    private Long lastSortKeyOf (Long parentId) {
+        return (parentId == null) ? nodeRepo.findMaxRootSortKey() : nodeRepo.findMaxSubSortKey(parentId);
+    }
+
+    private static Long parentIdOf (Node node) {
+        return (node.getParent() == null) ? null : node.getParent().getId();
+    }
+
+    private static Long firstOf (List<Long> keys) {
+        return keys.isEmpty() ? null : keys.get(0);
+    }
+
     @Transactional
     public Node updateNodeByActiveStatusNoteDescriptors(NodeDto nodeDto) {
         Node node = nodeRepo.findById(nodeDto.getId()).orElse(null);
         if (node != null) {
-            // basic matter
+            // basic matter; a flip of the active flag changes the aggregates of the ancestors
+            List<Long> affectedNodeIds = new ArrayList<>();
+            affectedNodeIds.add(node.getId());
+            boolean flipped = node.isActive() != nodeDto.isActive();
+            if (flipped) {
+                DescendantCounts counts = new DescendantCounts().add(node.getPath(), 0, nodeDto.isActive() ? 1 : -1);
+                affectedNodeIds.addAll(counts.ancestorIds());
+                counts.apply(nodeRepo, batchSize);
+            }
             node.setActive(nodeDto.isActive());
             node.setNote(nodeDto.getNote());
+            if (flipped) {
+                // visibility of the whole subtree follows the flag
+                node.setEffectivelyActive(recomputeEffectivelyActive(node.getPath()) && node.isActive());
+                affectedNodeIds.addAll(nodeRepo.findSubtreeIds(node.getId()));
+            }
             // descriptors matter
             for (DescriptorDto descriptorDto : nodeDto.getDescriptorsDto()) {
                 // try to get a descriptor
@@ -160,6 +392,9 @@ public class NodeServiceImpl implements NodeService {
                     descriptor.setTitle(descriptorDto.getTitle());
                     descriptor.setBrief(descriptorDto.getBrief());
                     descriptor.setFullDescr(descriptorDto.getFullDescr());
+                    if (descriptor.getNode() != null) {
+                        affectedNodeIds.add(descriptor.getNode().getId());
+                    }
                 } else {
                     node.setDone(false);
                     node.setMsg(node.getMsg() + "Descriptor with id=" + descriptorDto.getId() + " not found." + " | ");
@@ -167,6 +402,7 @@ public class NodeServiceImpl implements NodeService {
                 }
             } // for
             nodeRepo.save(node);
+            eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_UPDATED, affectedNodeIds.toArray(new Long[0])));
         } else {
             // in case of node == null
             logger.error("Node with id=" + nodeDto.getId() + " not found");
@@ -175,13 +411,256 @@ public class NodeServiceImpl implements NodeService {
         return node;
     }
 
+    /*
+     *  Batch variant of updateNodeByActiveStatusNoteDescriptors: one transaction for all items.
+     *  Items are processed in chunks of 'engine.batch.size': nodes and descriptors of a chunk are fetched
+     *  by one IN query each, the changes are flushed as JDBC batches and the persistence context is cleared.
+     *  Flips of the active flag reach the aggregates and the visibility once, after the last chunk.
+     */
+    @Transactional
+    public List<NodeUpdateResult> updateNodesByActiveStatusNoteDescriptors (List<NodeDto> nodeDtos) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        List<NodeUpdateResult> results = new ArrayList<>(nodeDtos.size());
+        Set<Long> affectedNodeIds = new LinkedHashSet<>();
+        DescendantCounts counts = new DescendantCounts();
+        List<String> flippedPaths = new ArrayList<>();
+        for (int from = 0; from < nodeDtos.size(); from += batchSize) {
+            List<NodeDto> chunk = nodeDtos.subList(from, Math.min(from + batchSize, nodeDtos.size()));
+            // fetching the chunk
+            List<Long> nodeIds = new ArrayList<>();
+            List<Long> descriptorIds = new ArrayList<>();
+            for (NodeDto nodeDto : chunk) {
+                if (nodeDto.getId() != null) {
+                    nodeIds.add(nodeDto.getId());
+                }
+                for (DescriptorDto descriptorDto : nodeDto.getDescriptorsDto()) {
+                    if (descriptorDto.getId() != null) {
+                        descriptorIds.add(descriptorDto.getId());
+                    }
+                }
+            }
+            Map<Long, Node> nodes = nodeRepo.findAllById(nodeIds).stream()
+                    .collect(Collectors.toMap(Node::getId, Function.identity()));
+            Map<Long, Descriptor> descriptors = new HashMap<>();
+            for (Descriptor descriptor : descriptorService.findDescriptorsByIds(descriptorIds)) {
+                descriptors.put(descriptor.getId(), descriptor);
+            }
+            // updating
+            for (NodeDto nodeDto : chunk) {
+                Node node = (nodeDto.getId() == null) ? null : nodes.get(nodeDto.getId());
+                if (node == null) {
+                    String msg = (nodeDto.getId() == null)
+                            ? "Node has not been updated: the ID parameter is required"
+                            : "Node with id=" + nodeDto.getId() + " not found";
+                    logger.error(msg);
+                    results.add(new NodeUpdateResult(nodeDto.getId(), false, msg));
+                    continue;
+                }
+                boolean done = true;
+                StringBuilder msg = new StringBuilder();
+                if (node.isActive() != nodeDto.isActive()) {
+                    counts.add(node.getPath(), 0, nodeDto.isActive() ? 1 : -1);
+                    flippedPaths.add(node.getPath());
+                }
+                node.setActive(nodeDto.isActive());
+                node.setNote(nodeDto.getNote());
+                affectedNodeIds.add(node.getId());
+                for (DescriptorDto descriptorDto : nodeDto.getDescriptorsDto()) {
+                    Descriptor descriptor = (descriptorDto.getId() == null) ? null : descriptors.get(descriptorDto.getId());
+                    if (descriptor != null) {
+                        descriptor.setTitle(descriptorDto.getTitle());
+                        descriptor.setBrief(descriptorDto.getBrief());
+                        descriptor.setFullDescr(descriptorDto.getFullDescr());
+                        if (descriptor.getNode() != null) {
+                            affectedNodeIds.add(descriptor.getNode().getId());
+                        }
+                    } else {
+                        done = false;
+                        msg.append("Descriptor with id=").append(descriptorDto.getId()).append(" not found. | ");
+                        logger.warn("Descriptor with id=" + descriptorDto.getId() + " not found");
+                    }
+                }
+                results.add(new NodeUpdateResult(node.getId(), done, done ? "Node has been updated" : msg.toString()));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }
+        // the aggregates of the ancestors of all flipped nodes, summed up
+        affectedNodeIds.addAll(counts.ancestorIds());
+        counts.apply(nodeRepo, batchSize);
+        // visibility: once per top-most flipped node, the subtrees of the others are covered by it
+        Collections.sort(flippedPaths);
+        String covered = null;
+        for (String path : flippedPaths) {
+            if (covered == null || !path.startsWith(covered)) {
+                recomputeEffectivelyActive(path);
+                affectedNodeIds.addAll(nodeRepo.findSubtreeIds(NodePath.idOf(path)));
+                covered = path;
+            }
+        }
+        eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_UPDATED, affectedNodeIds.toArray(new Long[0])));
+
+        return results;
+    }
+
     public Node findNodeById (long id) {
         return nodeRepo.findById(id).orElse(null);
     }
 
+    /*
+     *  Set-based removal: the subtree is selected by the path prefix of the node and removed by three
+     *  bulk statements (descriptors, parent links, nodes); neither descendants nor descriptors are loaded.
+     */
     @Transactional
     public void deleteNodeById(long id) {
-        nodeRepo.deleteById(id);
+        Node node = nodeRepo.findById(id).orElse(null);
+        if (node != null) {
+            String path = node.getPath();
+            // the aggregates of the ancestors lose the whole subtree
+            DescendantCounts counts = new DescendantCounts().add(path,
+                    -(1 + node.getDescendantCount()),
+                    -(node.getActiveDescendantCount() + (node.isActive() ? 1 : 0)));
+            List<Long> deletedNodeIds = nodeRepo.findSubtreeIds(id);
+            List<Long> ancestorIds = counts.ancestorIds();
+            counts.apply(nodeRepo, batchSize);
+            int descriptors = nodeRepo.deleteSubtreeDescriptors(path);
+            nodeRepo.detachSubtree(path);
+            int nodes = nodeRepo.deleteSubtree(path);
+            logger.debug("Subtree of the node id=" + id + " has been deleted: " + nodes + " node(s), " + descriptors + " descriptor(s)");
+            eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_DELETED, deletedNodeIds.toArray(new Long[0])));
+            // the ancestors are still there: their subs and aggregates have changed
+            if (!ancestorIds.isEmpty()) {
+                eventPublisher.publishEvent(CatalogEvent.of(CatalogEvent.Type.NODES_UPDATED, ancestorIds.toArray(new Long[0])));
+            }
+        }
+    }
+
+    public boolean isNodeUnder (long idNode, long idAncestor) {
+        return idNode != idAncestor && nodeRepo.existsByIdAndPathContaining(idNode, NodePath.segment(idAncestor));
+    }
+
+    public List<Node> findSubtree (long id) {
+        return nodeRepo.findSubtree(id);
+    }
+
+    /*
+     *  Loads the subtree by one path query and the descriptors by batched IN queries,
+     *  instead of walking subs, descriptors and parents lazily node by node.
+     *  depth == null means the whole subtree, depth == 0 the node alone
+     */
+    public NodeTree findNodeTree (long id, Integer depth, String languageCode) {
+        // the depth limit is applied by the query: levels below it are not loaded at all
+        List<Node> subtree = (depth == null) ? nodeRepo.findSubtree(id) : nodeRepo.findSubtreeLevels(id, Math.max(0, depth));
+        if (subtree.isEmpty()) {
+            logger.warn("Node with id=" + id + " not found");
+            return null;
+        }
+        Node root = subtree.get(0); // the root path is a prefix of all others, so it goes first
+        // level by level (parents before their subs), siblings in their order
+        List<Node> nodes = subtree.stream()
+                .sorted(Comparator.comparingInt((Node node) -> NodePath.levelOf(node.getPath()))
+                        .thenComparing(Node::getSortKey, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Node::getId))
+                .collect(Collectors.toList());
+        List<Long> ids = new ArrayList<>(nodes.size() + 1);
+        for (Node node : nodes) {
+            ids.add(node.getId());
+        }
+        if (root.getParent() != null) {
+            ids.add(root.getParent().getId());
+        }
+        Map<Long, List<Descriptor>> descriptors = descriptorService.findAllDescriptorsByNodeIds(ids, languageCode)
+                .stream()
+                .collect(Collectors.groupingBy(descriptor -> descriptor.getNode().getId()));
+
+        return new NodeTree(root, nodes, descriptors);
+    }
+
+    /*
+     *  Fills the paths for nodes created before the ancestry index was introduced: roots by one update,
+     *  then pass by pass the nodes whose parent has a path, in keyset pages of 'engine.batch.size':
+     *  the rows are selected with the parent path, the entities of the page are updated as a JDBC batch.
+     */
+    @Transactional
+    public int rebuildMaterializedPaths () {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        int total = nodeRepo.fillRootPaths();
+        int filled;
+        do {
+            filled = 0;
+            long after = 0;
+            List<NodePathRow> rows;
+            do {
+                rows = nodeRepo.findPathRowsToFillAfter(after, PageRequest.of(0, batchSize));
+                if (!rows.isEmpty()) {
+                    Map<Long, String> parentPaths = new HashMap<>();
+                    for (NodePathRow row : rows) {
+                        parentPaths.put(row.id(), row.parentPath());
+                    }
+                    for (Node node : nodeRepo.findAllById(parentPaths.keySet())) {
+                        node.setPath(NodePath.of(parentPaths.get(node.getId()), node.getId()));
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                    after = rows.get(rows.size() - 1).id();
+                    filled += rows.size();
+                }
+            } while (rows.size() == batchSize);
+            total += filled;
+        } while (filled > 0);
+        logger.info("Materialized paths have been rebuilt for " + total + " node(s)");
+
+        return total;
+    }
+
+    /*
+     *  Computes the subtree aggregates of all nodes (nodes created before the aggregates were introduced).
+     *  Depth comes from the path; the counts are summed up bottom-up, from the deepest level to the roots:
+     *  the children of a level are grouped by parent (keyset pages of parents), so every node is read once
+     *  and the parents are written by a few bulk updates per page (grouped by equal counts, see DescendantCounts).
+     */
+    @Transactional
+    public int rebuildSubtreeAggregates () {
+        int total = nodeRepo.resetSubtreeAggregates();
+        Integer maxDepth = nodeRepo.findMaxDepth();
+        for (int depth = (maxDepth == null) ? 0 : maxDepth; depth > 0; depth--) {
+            long after = 0;
+            List<NodeChildrenRow> rows;
+            do {
+                rows = nodeRepo.findChildrenRowsAfter(depth, after, PageRequest.of(0, batchSize));
+                DescendantCounts counts = new DescendantCounts();
+                for (NodeChildrenRow row : rows) {
+                    counts.addTo(List.of(row.parentId()),
+                            row.children() + row.descendants(),
+                            row.activeChildren() + row.activeDescendants());
+                }
+                counts.apply(nodeRepo, batchSize);
+                if (!rows.isEmpty()) {
+                    after = rows.get(rows.size() - 1).parentId();
+                }
+            } while (rows.size() == batchSize);
+        }
+        logger.info("Subtree aggregates have been rebuilt for " + total + " node(s)");
+
+        return total;
+    }
+
+    // computes the effective visibility of all nodes (every path starts with the separator: the whole forest is one prefix)
+    @Transactional
+    public int rebuildEffectivelyActive () {
+        int total = updateEffectivelyActive(NodePath.SEPARATOR, true);
+        logger.info("Effective visibility has been rebuilt for " + total + " node(s)");
+
+        return total;
+    }
+
+    // gives the sort keys to nodes created before the sibling order was introduced (their order by ID is kept)
+    @Transactional
+    public int fillMissingSortKeys () {
+        int total = nodeRepo.fillSortKeys(SiblingOrder.GAP);
+        logger.info("Sort keys have been filled for " + total + " node(s)");
+
+        return total;
     }
 
 }
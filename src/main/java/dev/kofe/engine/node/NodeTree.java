@@ -0,0 +1,21 @@
+package dev.kofe.engine.node;
+
+import dev.kofe.engine.descriptor.Descriptor;
+import java.util.List;
+import java.util.Map;
+
+/*
+ *  Preloaded subtree
+ *  [Kofe Simple Engine]
+ *  root        -- the requested node (its parent is still reachable through root.getParent())
+ *  nodes       -- the root and its descendants in path order: every parent goes before its subs
+ *  descriptors -- descriptors of the nodes (and of the root's parent) grouped by node ID
+ */
+
+public record NodeTree(Node root, List<Node> nodes, Map<Long, List<Descriptor>> descriptors) {
+
+    public List<Descriptor> descriptorsOf (Long nodeId) {
+        return descriptors.getOrDefault(nodeId, List.of());
+    }
+
+}
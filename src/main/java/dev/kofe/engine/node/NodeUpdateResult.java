@@ -0,0 +1,9 @@
+package dev.kofe.engine.node;
+
+/*
+ *  Result of one item of the batch update
+ *  [Kofe Simple Engine]
+ *  done = true in the case of a fully successful update of the node, msg = message about the result
+ */
+
+public record NodeUpdateResult(Long id, boolean done, String msg) { }
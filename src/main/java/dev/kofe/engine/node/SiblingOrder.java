@@ -0,0 +1,32 @@
+package dev.kofe.engine.node;
+
+/*
+ *  Gap-based order of the sibling nodes
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Siblings are ordered by (sortKey, id). A node appended to its parent gets the last key + GAP;
+ *  a node moved between two siblings gets the middle of their keys, so a move updates one row.
+ *  Only when two neighbours have no key left between them the keys from the insertion point on
+ *  are shifted by GAP (one bulk statement; after about 16 moves into the same spot).
+ *  *****************************************************************
+ */
+
+final class SiblingOrder {
+
+    static final long GAP = 1L << 16;
+
+    private SiblingOrder () { }
+
+    static long after (Long lastKey) {
+        return (lastKey != null ? lastKey : 0) + GAP;
+    }
+
+    static boolean hasRoomBetween (long lower, long upper) {
+        return upper - lower > 1;
+    }
+
+    static long between (long lower, long upper) {
+        return lower + (upper - lower) / 2;
+    }
+
+}
@@ -0,0 +1,155 @@
+package dev.kofe.engine.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ *  Inverted index of one language
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  postings  -- term -> (node ID -> weight), terms are sorted for prefix lookups
+ *  docs      -- node ID -> indexed texts and terms (to show hits and to remove old terms)
+ *
+ *  weight of a term in the document = 3 * occurrences in title + occurrences in brief
+ *  score of the document = sum over query terms of weight * idf, all query terms are required;
+ *  the last query term also matches as a prefix (at most MAX_PREFIX_TERMS terms)
+ *  *****************************************************************
+ */
+
+class LanguageIndex {
+
+    private record Doc(String title, String brief, Map<String, Integer> weights) { }
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int MAX_PREFIX_TERMS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Doc> docs = new HashMap<>();
+
+    void put (long nodeId, String title, String brief) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String term : SearchTokenizer.tokenize(title)) {
+            weights.merge(term, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String term : SearchTokenizer.tokenize(brief)) {
+            weights.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeDoc(nodeId);
+            if (!weights.isEmpty()) {
+                docs.put(nodeId, new Doc(title, brief, weights));
+                for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+                    postings.computeIfAbsent(weight.getKey(), (term) -> new HashMap<>()).put(nodeId, weight.getValue());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove (long nodeId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(nodeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeDoc (long nodeId) {
+        Doc doc = docs.remove(nodeId);
+        if (doc != null) {
+            for (String term : doc.weights().keySet()) {
+                Map<Long, Integer> nodes = postings.get(term);
+                if (nodes != null) {
+                    nodes.remove(nodeId);
+                    if (nodes.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+
+    int size () {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<SearchHit> search (List<String> terms, int limit) {
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size() && (scores == null || !scores.isEmpty()); i++) {
+                Map<Long, Double> termScores = scoreTerm(terms.get(i), i == terms.size() - 1);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> both = new HashMap<>();
+                    for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                        Double termScore = termScores.get(score.getKey());
+                        if (termScore != null) {
+                            both.put(score.getKey(), score.getValue() + termScore);
+                        }
+                    }
+                    scores = both;
+                }
+            }
+            // top-k by score
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> score : scores.entrySet()) {
+                top.add(score);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Long, Double> score = top.poll();
+                Doc doc = docs.get(score.getKey());
+                hits.add(new SearchHit(score.getKey(), doc.title(), doc.brief(), score.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // node ID -> best weight * idf among the terms matching the query term
+    private Map<Long, Double> scoreTerm (String queryTerm, boolean prefix) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matches = prefix
+                ? postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false)
+                : (postings.containsKey(queryTerm) ? Map.of(queryTerm, postings.get(queryTerm)) : Map.of());
+        int matched = 0;
+        for (Map<Long, Integer> nodes : matches.values()) {
+            if (matched++ == MAX_PREFIX_TERMS) {
+                break;
+            }
+            double idf = Math.log(1.0 + (double) docs.size() / nodes.size());
+            for (Map.Entry<Long, Integer> weight : nodes.entrySet()) {
+                scores.merge(weight.getKey(), weight.getValue() * idf, Math::max);
+            }
+        }
+        return scores;
+    }
+
+}
@@ -0,0 +1,72 @@
+package dev.kofe.engine.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*      Search API
+ *      [Kofe Simple Engine]
+ *
+ *      GET /search?lang=CODE&q=TEXT&limit=N    :   search nodes by the title and brief of the descriptors in the language
+ *                                              :   all words of the query are required, the last one may be a prefix
+ *                                              :   hits are ranked by score (title matches weigh more)
+ *                                              :   limit (optional, 20 by default, 100 max)
+ *                                              :   JSON: [ { "nodeId": N, "title": "..", "brief": "..", "score": 1.5 } ]
+ *                                              :   200 = ok
+ *                                              :   404 = language not found
+ *
+ *      GET /search/typeahead?lang=CODE&prefix=TEXT&limit=N :   top titles of the language starting with the prefix
+ *                                                          :   (case and diacritics are ignored), shorter titles first
+ *                                                          :   limit (optional, 10 by default, 10 max)
+ *                                                          :   JSON: [ { "nodeId": N, "title": ".." } ]
+ *                                                          :   200 = ok
+ *                                                          :   404 = language not found
+ */
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchIndex searchIndex;
+    private final TypeaheadService typeaheadService;
+    private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    public SearchController (SearchIndex searchIndex, TypeaheadService typeaheadService) {
+        this.searchIndex = searchIndex;
+        this.typeaheadService = typeaheadService;
+    }
+
+    @GetMapping("")
+    public ResponseEntity<List<SearchHit>> search (@RequestParam(name = "lang") String languageCode,
+                                                   @RequestParam(name = "q") String query,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        List<SearchHit> hits = searchIndex.search(languageCode, query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        if (hits != null) {
+            return new ResponseEntity<>(hits, HttpStatus.OK);
+        } else {
+            logger.warn("Language " + languageCode + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<TypeaheadHit>> suggest (@RequestParam(name = "lang") String languageCode,
+                                                       @RequestParam String prefix,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        List<TypeaheadHit> hits = typeaheadService.suggest(languageCode, prefix, Math.max(1, limit));
+        if (hits != null) {
+            return new ResponseEntity<>(hits, HttpStatus.OK);
+        } else {
+            logger.warn("Language " + languageCode + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+}
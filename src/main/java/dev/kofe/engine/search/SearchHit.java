@@ -0,0 +1,3 @@
+package dev.kofe.engine.search;
+
+public record SearchHit(Long nodeId, String title, String brief, double score) { }
@@ -0,0 +1,129 @@
+package dev.kofe.engine.search;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.descriptor.DescriptorText;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import dev.kofe.engine.language.LanguageRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Full-text search over descriptor titles and briefs
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  In-process inverted index, one LanguageIndex per language ID.
+ *  Built on start from the descriptor texts (keyset pages, no entities),
+ *  then kept up to date after commit by CatalogEvent:
+ *      NODES_ADDED, NODES_UPDATED  -- texts of the listed nodes are re-read and re-indexed
+ *      NODES_DELETED               -- the listed nodes are removed: the deleted subtree only,
+ *                                     its surviving ancestors come as NODES_UPDATED (see CatalogEvent)
+ *      LANGUAGES_CHANGED           -- indexes of removed languages are dropped
+ *  *****************************************************************
+ */
+
+@Service
+public class SearchIndex {
+
+    private final DescriptorRepo descriptorRepo;
+    private final LanguageRepo languageRepo;
+    private final LanguageRegistry languageRegistry;
+    private final Map<Long, LanguageIndex> indexes = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndex.class);
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+
+    @Autowired
+    public SearchIndex (DescriptorRepo descriptorRepo,
+                        LanguageRepo languageRepo,
+                        LanguageRegistry languageRegistry) {
+        this.descriptorRepo = descriptorRepo;
+        this.languageRepo = languageRepo;
+        this.languageRegistry = languageRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build () {
+        long after = 0;
+        long indexed = 0;
+        List<DescriptorText> page;
+        do {
+            page = descriptorRepo.findTextsAfter(after, PageRequest.of(0, batchSize));
+            for (DescriptorText text : page) {
+                index(text);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+                indexed += page.size();
+            }
+        } while (page.size() == batchSize);
+        logger.info("Search index has been built: " + indexed + " descriptor(s)");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        switch (event.type()) {
+            case NODES_ADDED, NODES_UPDATED -> reindex(event.nodeIds());
+            case NODES_DELETED -> {
+                for (LanguageIndex index : indexes.values()) {
+                    for (Long nodeId : event.nodeIds()) {
+                        index.remove(nodeId);
+                    }
+                }
+            }
+            case LANGUAGES_CHANGED -> {
+                Set<Long> languageIds = new HashSet<>();
+                for (Language language : languageRepo.findAll()) {
+                    languageIds.add(language.getId());
+                }
+                indexes.keySet().retainAll(languageIds);
+            }
+            default -> { }
+        }
+    }
+
+    // null if the language is not found
+    public List<SearchHit> search (String languageCode, String query, int limit) {
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            return null;
+        }
+        LanguageIndex index = indexes.get(language.getId());
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        return index.search(new ArrayList<>(new LinkedHashSet<>(SearchTokenizer.tokenize(query))), limit);
+    }
+
+    private void reindex (List<Long> nodeIds) {
+        for (int from = 0; from < nodeIds.size(); from += batchSize) {
+            List<Long> chunk = nodeIds.subList(from, Math.min(from + batchSize, nodeIds.size()));
+            for (DescriptorText text : descriptorRepo.findTextsByNodeIds(chunk)) {
+                index(text);
+            }
+        }
+    }
+
+    private void index (DescriptorText text) {
+        if (text.nodeId() != null && text.languageId() != null) {
+            indexes.computeIfAbsent(text.languageId(), (languageId) -> new LanguageIndex())
+                    .put(text.nodeId(), text.title(), text.brief());
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package dev.kofe.engine.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/*
+ *  Splits a text into search terms
+ *  [Kofe Simple Engine]
+ *  letters and digits only, lower case, diacritics removed: "Šaltibarščiai!" -> "saltibarsciai"
+ */
+
+final class SearchTokenizer {
+
+    private SearchTokenizer () { }
+
+    static List<String> tokenize (String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK && token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    // terms of the text joined by single spaces: the key of the text for prefix lookups
+    static String normalize (String text) {
+        return String.join(" ", tokenize(text));
+    }
+
+}
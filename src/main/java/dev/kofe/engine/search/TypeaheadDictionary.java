@@ -0,0 +1,130 @@
+package dev.kofe.engine.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/*
+ *  Immutable prefix dictionary of the titles of one language
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  The trie is kept implicitly in three parallel arrays sorted by the normalized title (key):
+ *  every trie node is a contiguous range of keys found by two binary searches.
+ *  Small ranges (up to SCAN_LIMIT keys) are ranked on the fly; the top entries of larger
+ *  ranges (the upper, "heavy" part of the trie) are precomputed per prefix.
+ *  Ranking: shorter titles first (closest completion), then in key order.
+ *  *****************************************************************
+ */
+
+final class TypeaheadDictionary {
+
+    static final int SCAN_LIMIT = 256;
+
+    private final String[] keys;
+    private final String[] titles;
+    private final long[] nodeIds;
+    private final int topSize;
+    private final Map<String, int[]> top = new HashMap<>();
+
+    private TypeaheadDictionary (String[] keys, String[] titles, long[] nodeIds, int topSize) {
+        this.keys = keys;
+        this.titles = titles;
+        this.nodeIds = nodeIds;
+        this.topSize = topSize;
+        collectTop(0, keys.length, 0);
+    }
+
+    static TypeaheadDictionary build (Map<Long, String> titlesByNodeId, int topSize) {
+        record Entry(String key, String title, long nodeId) { }
+        List<Entry> entries = new ArrayList<>(titlesByNodeId.size());
+        for (Map.Entry<Long, String> title : titlesByNodeId.entrySet()) {
+            String key = SearchTokenizer.normalize(title.getValue());
+            if (!key.isEmpty()) {
+                entries.add(new Entry(key, title.getValue(), title.getKey()));
+            }
+        }
+        entries.sort(Comparator.comparing(Entry::key).thenComparingLong(Entry::nodeId));
+        String[] keys = new String[entries.size()];
+        String[] titles = new String[entries.size()];
+        long[] nodeIds = new long[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = entries.get(i).key();
+            titles[i] = entries.get(i).title();
+            nodeIds[i] = entries.get(i).nodeId();
+        }
+        return new TypeaheadDictionary(keys, titles, nodeIds, topSize);
+    }
+
+    int size () {
+        return keys.length;
+    }
+
+    List<TypeaheadHit> suggest (String prefix, int limit) {
+        String key = SearchTokenizer.normalize(prefix);
+        int from = lowerBound(key);
+        int to = lowerBound(key + Character.MAX_VALUE);
+        int[] ranked = (to - from > SCAN_LIMIT) ? top.get(key) : rank(from, to);
+        List<TypeaheadHit> hits = new ArrayList<>();
+        for (int i = 0; ranked != null && i < ranked.length && i < limit; i++) {
+            hits.add(new TypeaheadHit(nodeIds[ranked[i]], titles[ranked[i]]));
+        }
+        return hits;
+    }
+
+    // precomputes the top of every prefix with more than SCAN_LIMIT keys, walking the implicit trie
+    private void collectTop (int from, int to, int depth) {
+        if (to - from <= SCAN_LIMIT) {
+            return;
+        }
+        top.put(keys[from].substring(0, depth), rank(from, to));
+        int i = from;
+        while (i < to && keys[i].length() == depth) {
+            i++; // keys equal to the prefix itself go first
+        }
+        while (i < to) {
+            char c = keys[i].charAt(depth);
+            int j = i;
+            while (j < to && keys[j].charAt(depth) == c) {
+                j++;
+            }
+            collectTop(i, j, depth + 1);
+            i = j;
+        }
+    }
+
+    // indices of the best 'topSize' entries of the range, best first
+    private int[] rank (int from, int to) {
+        Comparator<Integer> better = Comparator.<Integer>comparingInt((i) -> keys[i].length()).thenComparingInt((i) -> i);
+        PriorityQueue<Integer> worstFirst = new PriorityQueue<>(topSize + 1, better.reversed());
+        for (int i = from; i < to; i++) {
+            worstFirst.add(i);
+            if (worstFirst.size() > topSize) {
+                worstFirst.poll();
+            }
+        }
+        int[] ranked = new int[worstFirst.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = worstFirst.poll();
+        }
+        return ranked;
+    }
+
+    // first index with keys[index] >= key
+    private int lowerBound (String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
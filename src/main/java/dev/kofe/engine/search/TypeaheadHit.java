@@ -0,0 +1,3 @@
+package dev.kofe.engine.search;
+
+public record TypeaheadHit(Long nodeId, String title) { }
@@ -0,0 +1,65 @@
+package dev.kofe.engine.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/*
+ *  Typeahead of one language: immutable base dictionary with a small delta on top
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  base     -- dictionary of all titles as they were when it was built
+ *  masked   -- nodes whose titles have been changed, added or removed since then (base entries are hidden)
+ *  delta    -- dictionary of the current titles of the masked nodes
+ *
+ *  The base keeps the top of 'limit + masked' entries per heavy prefix (see TypeaheadService),
+ *  so the hidden entries can not crowd the suggestions out.
+ *  Hits of both are merged by the ranking of TypeaheadDictionary.
+ *  *****************************************************************
+ */
+
+final class TypeaheadOverlay {
+
+    private static final Comparator<Ranked> RANKING = Comparator.<Ranked>comparingInt((ranked) -> ranked.key().length())
+            .thenComparing(Ranked::key)
+            .thenComparingLong((ranked) -> ranked.hit().nodeId());
+
+    private record Ranked(String key, TypeaheadHit hit) { }
+
+    private final TypeaheadDictionary base;
+    private final Set<Long> masked;
+    private final TypeaheadDictionary delta;
+
+    TypeaheadOverlay (TypeaheadDictionary base, Set<Long> masked, TypeaheadDictionary delta) {
+        this.base = base;
+        this.masked = masked;
+        this.delta = delta;
+    }
+
+    TypeaheadDictionary base () {
+        return base;
+    }
+
+    List<TypeaheadHit> suggest (String prefix, int limit) {
+        if (masked.isEmpty()) {
+            return base.suggest(prefix, limit);
+        }
+        List<Ranked> ranked = new ArrayList<>();
+        for (TypeaheadHit hit : base.suggest(prefix, limit + masked.size())) {
+            if (!masked.contains(hit.nodeId())) {
+                ranked.add(new Ranked(SearchTokenizer.normalize(hit.title()), hit));
+            }
+        }
+        for (TypeaheadHit hit : delta.suggest(prefix, limit)) {
+            ranked.add(new Ranked(SearchTokenizer.normalize(hit.title()), hit));
+        }
+        ranked.sort(RANKING);
+        List<TypeaheadHit> hits = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            hits.add(ranked.get(i).hit());
+        }
+        return hits;
+    }
+
+}
@@ -0,0 +1,207 @@
+package dev.kofe.engine.search;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.descriptor.DescriptorText;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import dev.kofe.engine.language.LanguageRepo;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Typeahead: top titles of the language for a prefix
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  titles        -- language ID -> (node ID -> title), the source of the dictionaries
+ *  changes       -- language ID -> IDs of the nodes whose titles have changed since the base was built
+ *  dictionaries  -- language ID -> immutable TypeaheadOverlay (base dictionary + delta), replaced as a whole
+ *
+ *  After commit, CatalogEvent updates the titles of the listed nodes only and marks their
+ *  languages as dirty (NODES_DELETED lists the deleted subtree only, its surviving ancestors
+ *  come as NODES_UPDATED and keep their titles, see CatalogEvent); dirty languages are refreshed in the background after
+ *  'engine.typeahead.rebuild-delay-ms' (changes coming together are refreshed once):
+ *  only the delta of the changed titles is rebuilt, the base is kept. When the delta grows over
+ *  'engine.typeahead.delta.size' titles it is merged: the base is rebuilt from all titles.
+ *  Readers keep using the previous dictionary until the new one is swapped in.
+ *  *****************************************************************
+ */
+
+@Service
+public class TypeaheadService {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    private final DescriptorRepo descriptorRepo;
+    private final LanguageRepo languageRepo;
+    private final LanguageRegistry languageRegistry;
+    private final Map<Long, Map<Long, String>> titles = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> changes = new ConcurrentHashMap<>();
+    private final Map<Long, TypeaheadOverlay> dictionaries = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyLanguageIds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor();
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadService.class);
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+    @Value("${engine.typeahead.rebuild-delay-ms:200}") private long rebuildDelayMs;
+    @Value("${engine.typeahead.delta.size:64}") private int maxDeltaSize;
+
+    @Autowired
+    public TypeaheadService (DescriptorRepo descriptorRepo,
+                             LanguageRepo languageRepo,
+                             LanguageRegistry languageRegistry) {
+        this.descriptorRepo = descriptorRepo;
+        this.languageRepo = languageRepo;
+        this.languageRegistry = languageRegistry;
+    }
+
+    @PreDestroy
+    public void shutdown () {
+        rebuilder.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build () {
+        long after = 0;
+        List<DescriptorText> page;
+        do {
+            page = descriptorRepo.findTextsAfter(after, PageRequest.of(0, batchSize));
+            for (DescriptorText text : page) {
+                putTitle(text);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == batchSize);
+        for (Long languageId : titles.keySet()) {
+            rebuild(languageId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        switch (event.type()) {
+            case NODES_ADDED, NODES_UPDATED -> {
+                List<Long> nodeIds = event.nodeIds();
+                for (int from = 0; from < nodeIds.size(); from += batchSize) {
+                    for (DescriptorText text : descriptorRepo.findTextsByNodeIds(nodeIds.subList(from, Math.min(from + batchSize, nodeIds.size())))) {
+                        putTitle(text);
+                    }
+                }
+            }
+            case NODES_DELETED -> {
+                for (Map.Entry<Long, Map<Long, String>> languageTitles : titles.entrySet()) {
+                    for (Long nodeId : event.nodeIds()) {
+                        if (languageTitles.getValue().remove(nodeId) != null) {
+                            changed(languageTitles.getKey(), nodeId);
+                        }
+                    }
+                }
+            }
+            case LANGUAGES_CHANGED -> {
+                Set<Long> languageIds = new HashSet<>();
+                for (Language language : languageRepo.findAll()) {
+                    languageIds.add(language.getId());
+                }
+                titles.keySet().retainAll(languageIds);
+                changes.keySet().retainAll(languageIds);
+                dictionaries.keySet().retainAll(languageIds);
+            }
+            default -> { }
+        }
+        scheduleRebuild();
+    }
+
+    // null if the language is not found
+    public List<TypeaheadHit> suggest (String languageCode, String prefix, int limit) {
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            return null;
+        }
+        TypeaheadOverlay dictionary = dictionaries.get(language.getId());
+        return (dictionary == null) ? new ArrayList<>() : dictionary.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    private void putTitle (DescriptorText text) {
+        if (text.nodeId() == null || text.languageId() == null) {
+            return;
+        }
+        Map<Long, String> languageTitles = titles.computeIfAbsent(text.languageId(), (languageId) -> new ConcurrentHashMap<>());
+        String title = (text.title() == null || text.title().isBlank()) ? null : text.title();
+        String previous = (title == null)
+                ? languageTitles.remove(text.nodeId())
+                : languageTitles.put(text.nodeId(), title);
+        if (!Objects.equals(previous, title)) {
+            changed(text.languageId(), text.nodeId());
+        }
+    }
+
+    // the title is changed in 'titles' first, then noted here (see rebuild)
+    private void changed (Long languageId, Long nodeId) {
+        changes.computeIfAbsent(languageId, (key) -> ConcurrentHashMap.newKeySet()).add(nodeId);
+        dirtyLanguageIds.add(languageId);
+    }
+
+    private void scheduleRebuild () {
+        if (!dirtyLanguageIds.isEmpty()) {
+            rebuilder.schedule(() -> {
+                for (Long languageId : new ArrayList<>(dirtyLanguageIds)) {
+                    dirtyLanguageIds.remove(languageId);
+                    rebuild(languageId);
+                }
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void rebuild (Long languageId) {
+        Map<Long, String> languageTitles = titles.get(languageId);
+        if (languageTitles == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        Set<Long> languageChanges = changes.computeIfAbsent(languageId, (key) -> ConcurrentHashMap.newKeySet());
+        Set<Long> changedNodeIds = Set.copyOf(languageChanges);
+        TypeaheadOverlay current = dictionaries.get(languageId);
+        if (current != null && changedNodeIds.size() <= maxDeltaSize) {
+            // the delta only: the changed titles over the same base
+            Map<Long, String> deltaTitles = new HashMap<>();
+            for (Long nodeId : changedNodeIds) {
+                String title = languageTitles.get(nodeId);
+                if (title != null) {
+                    deltaTitles.put(nodeId, title);
+                }
+            }
+            dictionaries.put(languageId, new TypeaheadOverlay(current.base(), changedNodeIds,
+                    TypeaheadDictionary.build(deltaTitles, MAX_SUGGESTIONS)));
+            logger.debug("Typeahead of the language id=" + languageId + ": delta of " + changedNodeIds.size()
+                    + " title(s) rebuilt in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+            return;
+        }
+        // the merge: changes noted from now on (titles changed after the copy below) go to the next delta
+        languageChanges.removeAll(changedNodeIds);
+        TypeaheadDictionary base = TypeaheadDictionary.build(new HashMap<>(languageTitles), MAX_SUGGESTIONS + maxDeltaSize);
+        dictionaries.put(languageId, new TypeaheadOverlay(base, Set.of(), TypeaheadDictionary.build(Map.of(), MAX_SUGGESTIONS)));
+        logger.debug("Typeahead of the language id=" + languageId + " has been rebuilt: " + base.size()
+                + " title(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+}
@@ -0,0 +1,189 @@
+package dev.kofe.engine.snapshot;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ *  Immutable columnar snapshot of the catalog tree
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Every node gets an int slot; the columns are arrays indexed by slot:
+ *      ids, parents, firstChildren, nextSiblings, active, notes
+ *  NONE (-1) marks "no parent / no child / no sibling"; roots are chained from firstRoot
+ *  by nextSiblings, subs of a node are chained from its first child in the sibling order (sort key, ID).
+ *  slotById      -- primitive node ID -> slot map
+ *  titles/briefs -- language ID -> texts by slot; equal strings of a language share one instance
+ *  *****************************************************************
+ */
+
+public final class CatalogSnapshot {
+
+    public static final int NONE = -1;
+
+    private final long[] ids;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final boolean[] active;
+    private final String[] notes;
+    private final int firstRoot;
+    private final LongIntMap slotById;
+    private final Map<Long, String[]> titles;
+    private final Map<Long, String[]> briefs;
+    private final Instant builtAt;
+
+    private CatalogSnapshot (Builder builder) {
+        int size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.active = Arrays.copyOf(builder.active, size);
+        this.notes = Arrays.copyOf(builder.notes, size);
+        this.slotById = builder.slotById;
+        this.parents = builder.parents;
+        this.firstChildren = builder.firstChildren;
+        this.nextSiblings = builder.nextSiblings;
+        this.firstRoot = builder.firstRoot;
+        this.titles = builder.titles;
+        this.briefs = builder.briefs;
+        this.builtAt = Instant.now();
+    }
+
+    public int size () { return ids.length; }
+    public Instant builtAt () { return builtAt; }
+    public int firstRoot () { return firstRoot; }
+    public int slotOf (long id) { return slotById.get(id); }
+    public long id (int slot) { return ids[slot]; }
+    public int parent (int slot) { return parents[slot]; }
+    public int firstChild (int slot) { return firstChildren[slot]; }
+    public int nextSibling (int slot) { return nextSiblings[slot]; }
+    public boolean active (int slot) { return active[slot]; }
+    public String note (int slot) { return notes[slot]; }
+
+    public String title (int slot, long languageId) {
+        String[] languageTitles = titles.get(languageId);
+        return (languageTitles == null) ? null : languageTitles[slot];
+    }
+
+    public String brief (int slot, long languageId) {
+        String[] languageBriefs = briefs.get(languageId);
+        return (languageBriefs == null) ? null : languageBriefs[slot];
+    }
+
+    // the same nodes, links, notes and active flags as in the other snapshot (nodes get their slots in ID order)
+    boolean sameTree (CatalogSnapshot other) {
+        return firstRoot == other.firstRoot
+                && Arrays.equals(ids, other.ids)
+                && Arrays.equals(parents, other.parents)
+                && Arrays.equals(firstChildren, other.firstChildren)
+                && Arrays.equals(nextSiblings, other.nextSiblings)
+                && Arrays.equals(active, other.active)
+                && Arrays.equals(notes, other.notes);
+    }
+
+    // the same titles and briefs of the language as in the other snapshot (meaningful if sameTree)
+    boolean sameTexts (CatalogSnapshot other, long languageId) {
+        return Arrays.equals(titles.get(languageId), other.titles.get(languageId))
+                && Arrays.equals(briefs.get(languageId), other.briefs.get(languageId));
+    }
+
+    /*
+     *  Two phases: all nodes first (addNode, any order of IDs), then the texts (addTexts).
+     *  The tree is linked when the first text is added or on build().
+     */
+    public static final class Builder {
+
+        private long[] ids = new long[1024];
+        private long[] parentIds = new long[1024];
+        private long[] sortKeys = new long[1024];
+        private boolean[] active = new boolean[1024];
+        private String[] notes = new String[1024];
+        private int size;
+
+        private LongIntMap slotById;
+        private int[] parents;
+        private int[] firstChildren;
+        private int[] nextSiblings;
+        private int firstRoot = NONE;
+        private final Map<Long, String[]> titles = new HashMap<>();
+        private final Map<Long, String[]> briefs = new HashMap<>();
+        private final Map<Long, Map<String, String>> interned = new HashMap<>();
+
+        public Builder addNode (long id, Long parentId, Long sortKey, String note, boolean isActive) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                parentIds = Arrays.copyOf(parentIds, capacity);
+                sortKeys = Arrays.copyOf(sortKeys, capacity);
+                active = Arrays.copyOf(active, capacity);
+                notes = Arrays.copyOf(notes, capacity);
+            }
+            ids[size] = id;
+            parentIds[size] = (parentId == null) ? Long.MIN_VALUE : parentId;
+            sortKeys[size] = (sortKey == null) ? Long.MIN_VALUE : sortKey;
+            active[size] = isActive;
+            notes[size] = note;
+            size++;
+            return this;
+        }
+
+        public Builder addTexts (long nodeId, long languageId, String title, String brief) {
+            link();
+            int slot = slotById.get(nodeId);
+            if (slot != NONE) {
+                Map<String, String> languageStrings = interned.computeIfAbsent(languageId, (key) -> new HashMap<>());
+                titles.computeIfAbsent(languageId, (key) -> new String[size])[slot] = intern(languageStrings, title);
+                briefs.computeIfAbsent(languageId, (key) -> new String[size])[slot] = intern(languageStrings, brief);
+            }
+            return this;
+        }
+
+        public CatalogSnapshot build () {
+            link();
+            interned.clear();
+            return new CatalogSnapshot(this);
+        }
+
+        private static String intern (Map<String, String> strings, String value) {
+            return (value == null) ? null : strings.computeIfAbsent(value, (key) -> key);
+        }
+
+        private void link () {
+            if (slotById != null) {
+                return;
+            }
+            slotById = new LongIntMap(size);
+            for (int slot = 0; slot < size; slot++) {
+                slotById.put(ids[slot], slot);
+            }
+            // slots in descending sibling order, every node is pushed to the head of its parent's chain:
+            // chains end up in the sibling order
+            Integer[] descending = new Integer[size];
+            for (int slot = 0; slot < size; slot++) {
+                descending[slot] = slot;
+            }
+            Arrays.sort(descending, (a, b) -> (sortKeys[a] != sortKeys[b])
+                    ? Long.compare(sortKeys[b], sortKeys[a])
+                    : Long.compare(ids[b], ids[a]));
+            parents = new int[size];
+            firstChildren = new int[size];
+            nextSiblings = new int[size];
+            Arrays.fill(firstChildren, NONE);
+            for (int slot : descending) {
+                int parent = (parentIds[slot] == Long.MIN_VALUE) ? NONE : slotById.get(parentIds[slot]);
+                parents[slot] = parent;
+                if (parent == NONE) {
+                    nextSiblings[slot] = firstRoot;
+                    firstRoot = slot;
+                } else {
+                    nextSiblings[slot] = firstChildren[parent];
+                    firstChildren[parent] = slot;
+                }
+            }
+            parentIds = null;
+            sortKeys = null;
+        }
+
+    }
+
+}
@@ -0,0 +1,121 @@
+package dev.kofe.engine.snapshot;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.descriptor.DescriptorText;
+import dev.kofe.engine.node.NodeRepo;
+import dev.kofe.engine.node.NodeRow;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Holder of the current CatalogSnapshot
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  The snapshot is built from the database when the application is ready.
+ *  After commit, every CatalogEvent schedules a full rebuild after 'engine.snapshot.rebuild-delay-ms'
+ *  (changes coming together are rebuilt once); the new snapshot replaces the current one as a whole,
+ *  readers keep using the snapshot they have got. Every new snapshot is announced by SnapshotRebuiltEvent.
+ *  *****************************************************************
+ */
+
+@Service
+public class CatalogSnapshotService {
+
+    private final NodeRepo nodeRepo;
+    private final DescriptorRepo descriptorRepo;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile CatalogSnapshot current;
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+    @Value("${engine.snapshot.rebuild-delay-ms:500}") private long rebuildDelayMs;
+
+    @Autowired
+    public CatalogSnapshotService (NodeRepo nodeRepo,
+                                   DescriptorRepo descriptorRepo,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.nodeRepo = nodeRepo;
+        this.descriptorRepo = descriptorRepo;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PreDestroy
+    public void shutdown () {
+        rebuilder.shutdownNow();
+    }
+
+    // null until the first snapshot is built
+    public CatalogSnapshot current () {
+        return current;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild () {
+        long start = System.nanoTime();
+        CatalogSnapshot.Builder builder = new CatalogSnapshot.Builder();
+
+        long after = 0;
+        List<NodeRow> rows;
+        do {
+            rows = nodeRepo.findRowsAfter(after, PageRequest.of(0, batchSize));
+            for (NodeRow row : rows) {
+                builder.addNode(row.id(), row.parentId(), row.sortKey(), row.note(), row.active());
+            }
+            if (!rows.isEmpty()) {
+                after = rows.get(rows.size() - 1).id();
+            }
+        } while (rows.size() == batchSize);
+
+        after = 0;
+        List<DescriptorText> texts;
+        do {
+            texts = descriptorRepo.findTextsAfter(after, PageRequest.of(0, batchSize));
+            for (DescriptorText text : texts) {
+                if (text.nodeId() != null && text.languageId() != null) {
+                    builder.addTexts(text.nodeId(), text.languageId(), text.title(), text.brief());
+                }
+            }
+            if (!texts.isEmpty()) {
+                after = texts.get(texts.size() - 1).id();
+            }
+        } while (texts.size() == batchSize);
+
+        CatalogSnapshot snapshot = builder.build();
+        current = snapshot;
+        logger.debug("Catalog snapshot has been rebuilt: " + snapshot.size()
+                + " node(s) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        eventPublisher.publishEvent(new SnapshotRebuiltEvent(snapshot));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuilder.schedule(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException exception) {
+                    logger.error("Catalog snapshot rebuild failed", exception);
+                }
+            }, rebuildDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package dev.kofe.engine.snapshot;
+
+import java.util.Arrays;
+
+/*
+ *  Fixed-capacity open-addressing map long -> int without boxing
+ *  [Kofe Simple Engine]
+ *  Long.MIN_VALUE marks an empty cell (it is never used as a database ID); missing keys give -1
+ */
+
+final class LongIntMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long[] keys;
+    private final int[] values;
+    private final int mask;
+
+    LongIntMap (int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    void put (long key, int value) {
+        int index = indexOf(key);
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    int get (long key) {
+        int index = indexOf(key);
+        return (keys[index] == key) ? values[index] : -1;
+    }
+
+    private int indexOf (long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int index = (int) (hash ^ (hash >>> 32)) & mask;
+        while (keys[index] != EMPTY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+}
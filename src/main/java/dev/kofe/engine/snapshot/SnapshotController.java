@@ -0,0 +1,126 @@
+package dev.kofe.engine.snapshot;
+
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*      Catalog snapshot API (read-only, no database access)
+ *      [Kofe Simple Engine]
+ *
+ *      GET /snapshot                                   :   state of the snapshot
+ *                                                      :   JSON: { "nodes": N, "builtAt": ".." }
+ *                                                      :   200 = ok
+ *                                                      :   503 = the snapshot is not built yet
+ *
+ *      GET /snapshot/roots?lang=CODE&depth=N           :   root nodes with the title and brief of the language
+ *                                                      :   depth (optional, 0 by default): levels of subs to fill in
+ *                                                      :   200 = ok
+ *                                                      :   404 = language not found
+ *                                                      :   503 = the snapshot is not built yet
+ *
+ *      GET /snapshot/nodes/{id}?lang=CODE&depth=N      :   the node with the title and brief of the language
+ *                                                      :   depth (optional, 1 by default): levels of subs to fill in
+ *                                                      :   200 = ok
+ *                                                      :   404 = node or language not found
+ *                                                      :   503 = the snapshot is not built yet
+ *
+ *      The snapshot may lag behind the database by 'engine.snapshot.rebuild-delay-ms' plus the rebuild time
+ */
+
+@RestController
+@RequestMapping("/snapshot")
+public class SnapshotController {
+
+    private final CatalogSnapshotService snapshotService;
+    private final LanguageRegistry languageRegistry;
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotController.class);
+
+    private static final int MAX_DEPTH = 16;
+
+    public record SnapshotInfo(int nodes, Instant builtAt) { }
+
+    @Autowired
+    public SnapshotController (CatalogSnapshotService snapshotService, LanguageRegistry languageRegistry) {
+        this.snapshotService = snapshotService;
+        this.languageRegistry = languageRegistry;
+    }
+
+    @GetMapping("")
+    public ResponseEntity<SnapshotInfo> info () {
+        CatalogSnapshot snapshot = snapshotService.current();
+        if (snapshot == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ResponseEntity<>(new SnapshotInfo(snapshot.size(), snapshot.builtAt()), HttpStatus.OK);
+    }
+
+    @GetMapping("/roots")
+    public ResponseEntity<List<SnapshotNodeDto>> roots (@RequestParam(name = "lang") String languageCode,
+                                                        @RequestParam(defaultValue = "0") int depth) {
+        CatalogSnapshot snapshot = snapshotService.current();
+        if (snapshot == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            logger.warn("Language " + languageCode + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        List<SnapshotNodeDto> roots = new ArrayList<>();
+        for (int slot = snapshot.firstRoot(); slot != CatalogSnapshot.NONE; slot = snapshot.nextSibling(slot)) {
+            roots.add(toDto(snapshot, slot, language.getId(), clampDepth(depth)));
+        }
+        return new ResponseEntity<>(roots, HttpStatus.OK);
+    }
+
+    @GetMapping("/nodes/{id}")
+    public ResponseEntity<SnapshotNodeDto> node (@PathVariable Long id,
+                                                 @RequestParam(name = "lang") String languageCode,
+                                                 @RequestParam(defaultValue = "1") int depth) {
+        CatalogSnapshot snapshot = snapshotService.current();
+        if (snapshot == null) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            logger.warn("Language " + languageCode + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        int slot = snapshot.slotOf(id);
+        if (slot == CatalogSnapshot.NONE) {
+            logger.warn("Node with id=" + id + " not found in the snapshot");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(toDto(snapshot, slot, language.getId(), clampDepth(depth)), HttpStatus.OK);
+    }
+
+    private static int clampDepth (int depth) {
+        return Math.max(0, Math.min(depth, MAX_DEPTH));
+    }
+
+    private static SnapshotNodeDto toDto (CatalogSnapshot snapshot, int slot, long languageId, int depth) {
+        SnapshotNodeDto dto = new SnapshotNodeDto();
+        dto.setId(snapshot.id(slot));
+        int parent = snapshot.parent(slot);
+        dto.setParentId(parent == CatalogSnapshot.NONE ? null : snapshot.id(parent));
+        dto.setNote(snapshot.note(slot));
+        dto.setActive(snapshot.active(slot));
+        dto.setTitle(snapshot.title(slot, languageId));
+        dto.setBrief(snapshot.brief(slot, languageId));
+        if (depth > 0) {
+            for (int child = snapshot.firstChild(slot); child != CatalogSnapshot.NONE; child = snapshot.nextSibling(child)) {
+                dto.getSubs().add(toDto(snapshot, child, languageId, depth - 1));
+            }
+        }
+        return dto;
+    }
+
+}
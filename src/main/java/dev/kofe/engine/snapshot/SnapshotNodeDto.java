@@ -0,0 +1,22 @@
+package dev.kofe.engine.snapshot;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ *  Node in one language read from the catalog snapshot
+ *  [Kofe Simple Engine]
+ *  subs are filled down to the requested depth only
+ */
+
+@Data
+public class SnapshotNodeDto {
+    private Long id;
+    private Long parentId;
+    private String note;
+    private boolean active;
+    private String title;
+    private String brief;
+    private List<SnapshotNodeDto> subs = new ArrayList<>();
+}
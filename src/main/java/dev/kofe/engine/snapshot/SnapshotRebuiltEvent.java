@@ -0,0 +1,4 @@
+package dev.kofe.engine.snapshot;
+
+// published (on the rebuilding thread) when a new catalog snapshot has replaced the previous one
+public record SnapshotRebuiltEvent(CatalogSnapshot snapshot) { }
@@ -0,0 +1,112 @@
+package dev.kofe.engine.snapshot;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*      Static storefront catalog API (pre-rendered files, no database access)
+ *      [Kofe Simple Engine]
+ *
+ *      GET /catalog/{code}                 :   the active tree in the language (see StaticCatalogPublisher):
+ *                                          :   [ { "id": N, "parentId": N, "note": "..", "title": "..", "brief": ".." } ]
+ *                                          :   gzip-encoded if the client accepts it
+ *                                          :   strong ETag of the representation (the gzip one ends with "-gz"):
+ *                                          :   If-None-Match is answered with 304
+ *                                          :   200 = ok
+ *                                          :   404 = no catalog of the language (unknown or inactive, or not published yet)
+ *
+ *      The files follow the catalog snapshot (see GET /snapshot) and lag behind the database the same way.
+ */
+
+@RestController
+@RequestMapping("/catalog")
+public class StaticCatalogController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final StaticCatalogPublisher publisher;
+    private static final Logger logger = LoggerFactory.getLogger(StaticCatalogController.class);
+
+    @Autowired
+    public StaticCatalogController (StaticCatalogPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @GetMapping("/{code}")
+    public void getCatalog (@PathVariable String code,
+                            HttpServletRequest request,
+                            HttpServletResponse response,
+                            WebRequest webRequest) throws IOException {
+        // the files of a catalog may be replaced in between: one more try with the new ones
+        for (int attempt = 0; attempt < 2; attempt++) {
+            StaticCatalogPublisher.PublishedCatalog catalog = publisher.find(code);
+            if (catalog == null) {
+                logger.warn("Static catalog of the language " + code + " not found");
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            boolean gzip = acceptsGzip(request);
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (webRequest.checkNotModified(gzip ? catalog.gzipEtag() : catalog.etag())) {
+                return;
+            }
+            try {
+                send(gzip ? catalog.gzip() : catalog.json(), gzip, request, response);
+                return;
+            } catch (NoSuchFileException e) {
+                logger.debug("Static catalog of the language " + code + " has been replaced while being opened");
+            }
+        }
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+
+    /*
+     *  With Tomcat sendfile (NIO / NIO2 / APR connectors) the file is handed over to the connector by the
+     *  request attributes and goes from the page cache to the socket after the handler returns (zero-copy);
+     *  otherwise it is copied through a buffer into the response stream.
+     */
+    private static void send (Path path, boolean gzip, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = Files.size(path); // NoSuchFileException if the file has been replaced
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLengthLong(size);
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        try (InputStream input = Files.newInputStream(path)) {
+            input.transferTo(response.getOutputStream());
+        }
+        response.flushBuffer();
+    }
+
+    private static boolean acceptsGzip (HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+}
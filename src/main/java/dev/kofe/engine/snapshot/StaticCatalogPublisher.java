@@ -0,0 +1,240 @@
+package dev.kofe.engine.snapshot;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Static storefront catalog: one immutable JSON file per active language, plain and gzip
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  Rendered from the CatalogSnapshot (SnapshotRebuiltEvent), never from JPA.
+ *  Content: the active tree in pre-order, siblings in their order - nodes whose ancestors are all active -
+ *      [ { "id": N, "parentId": N, "note": "..", "title": "..", "brief": ".." } ]
+ *  Only the languages whose content may have changed are rendered: all of them if the tree (nodes,
+ *  notes, active flags) differs from the previous snapshot, otherwise those whose titles or briefs differ.
+ *  The comparison is made in memory over the whole snapshot on every rebuild (the events do not tell
+ *  the languages of the changed descriptors); a rendered language whose content is the same keeps its files.
+ *  Changed files are written under a temporary name and moved into place atomically; the replaced files
+ *  are removed one rebuild later, so the responses already sending them can finish.
+ *  Files left by a previous run ("catalog-*") are removed on startup.
+ *  'engine.static-catalog.dir' is the directory of the files (a temporary directory by default),
+ *  'engine.static-catalog.enabled=false' turns the publisher off.
+ *  *****************************************************************
+ */
+
+@Service
+public class StaticCatalogPublisher {
+
+    public record PublishedCatalog(String languageCode, Path json, Path gzip, String etag, long jsonSize, long gzipSize) {
+
+        // the gzip-encoded representation has its own strong ETag
+        public String gzipEtag () {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    private final LanguageRegistry languageRegistry;
+    private final ObjectMapper objectMapper;
+    private final Map<String, PublishedCatalog> published = new ConcurrentHashMap<>();
+    private List<Path> retired = new ArrayList<>();
+    private CatalogSnapshot lastSnapshot;
+    private long sequence;
+    private static final Logger logger = LoggerFactory.getLogger(StaticCatalogPublisher.class);
+
+    @Value("${engine.static-catalog.enabled:true}") private boolean enabled;
+    @Value("${engine.static-catalog.dir:${java.io.tmpdir}/kofe-engine-catalog}") private Path directory;
+
+    @Autowired
+    public StaticCatalogPublisher (LanguageRegistry languageRegistry, ObjectMapper objectMapper) {
+        this.languageRegistry = languageRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    // null if there is no catalog of the language (unknown or inactive language, or not published yet)
+    public PublishedCatalog find (String languageCode) {
+        return published.get(languageCode);
+    }
+
+    @PostConstruct
+    public void removeOrphans () {
+        if (!enabled || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> orphans = Files.newDirectoryStream(directory, "catalog-*")) {
+            for (Path orphan : orphans) {
+                deleteQuietly(orphan);
+            }
+        } catch (IOException e) {
+            logger.warn("Static catalog: files of a previous run can not be listed: " + e.getMessage());
+        }
+    }
+
+    @EventListener
+    public synchronized void onSnapshotRebuilt (SnapshotRebuiltEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = event.snapshot();
+        boolean sameTree = lastSnapshot != null && snapshot.sameTree(lastSnapshot);
+        Map<String, PublishedCatalog> next = new HashMap<>();
+        int rendered = 0;
+        try {
+            Files.createDirectories(directory);
+            for (Language language : languageRegistry.findActive()) {
+                PublishedCatalog previous = published.get(language.getCode());
+                if (previous != null && sameTree && snapshot.sameTexts(lastSnapshot, language.getId())) {
+                    next.put(language.getCode(), previous);
+                    continue;
+                }
+                rendered++;
+                next.put(language.getCode(), publish(snapshot, language, previous));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Static catalog has not been published", e);
+            return;
+        }
+        // the files replaced a rebuild ago are not being sent any more; the ones replaced now are kept till the next one
+        for (Path path : retired) {
+            deleteQuietly(path);
+        }
+        retired = new ArrayList<>();
+        for (PublishedCatalog previous : published.values()) {
+            if (next.get(previous.languageCode()) != previous) {
+                retired.add(previous.json());
+                retired.add(previous.gzip());
+            }
+        }
+        published.keySet().retainAll(next.keySet());
+        published.putAll(next);
+        lastSnapshot = snapshot;
+        logger.debug("Static catalog: " + rendered + " of " + next.size() + " language(s) rendered in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    // the previous catalog if the content did not change
+    private PublishedCatalog publish (CatalogSnapshot snapshot, Language language, PublishedCatalog previous) throws IOException {
+        Path temporary = Files.createTempFile(directory, "catalog-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream output = new DigestOutputStream(Files.newOutputStream(temporary), digest);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8)) {
+                render(snapshot, language.getId(), generator);
+            }
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+            if (previous != null && previous.etag().equals(etag)) {
+                return previous;
+            }
+
+            String name = "catalog-" + language.getCode() + "-" + (++sequence);
+            Path gzipTemporary = Files.createTempFile(directory, "catalog-", ".tmp");
+            try (InputStream input = Files.newInputStream(temporary);
+                 OutputStream output = new GZIPOutputStream(Files.newOutputStream(gzipTemporary), 64 * 1024)) {
+                input.transferTo(output);
+            }
+            Path json = Files.move(temporary, directory.resolve(name + ".json"), StandardCopyOption.ATOMIC_MOVE);
+            Path gzip = Files.move(gzipTemporary, directory.resolve(name + ".json.gz"), StandardCopyOption.ATOMIC_MOVE);
+            return new PublishedCatalog(language.getCode(), json, gzip, etag, Files.size(json), Files.size(gzip));
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private static void render (CatalogSnapshot snapshot, long languageId, JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        // pre-order walk with an explicit stack of slots; inactive nodes cut their subtrees off
+        int[] stack = new int[64];
+        int top = 0;
+        for (int slot = snapshot.firstRoot(); slot != CatalogSnapshot.NONE; slot = snapshot.nextSibling(slot)) {
+            if (!snapshot.active(slot)) {
+                continue;
+            }
+            stack[top++] = slot;
+            while (top > 0) {
+                int current = stack[--top];
+                writeNode(snapshot, current, languageId, generator);
+                // subs are taken along the snapshot's sibling chain (sort key, ID) and reversed on the stack,
+                // so they come out in the sibling order, not re-sorted
+                int mark = top;
+                for (int child = snapshot.firstChild(current); child != CatalogSnapshot.NONE; child = snapshot.nextSibling(child)) {
+                    if (snapshot.active(child)) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, top * 2);
+                        }
+                        stack[top++] = child;
+                    }
+                }
+                reverse(stack, mark, top);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeNode (CatalogSnapshot snapshot, int slot, long languageId, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", snapshot.id(slot));
+        int parent = snapshot.parent(slot);
+        if (parent != CatalogSnapshot.NONE) {
+            generator.writeNumberField("parentId", snapshot.id(parent));
+        } else {
+            generator.writeNullField("parentId");
+        }
+        generator.writeStringField("note", snapshot.note(slot));
+        generator.writeStringField("title", snapshot.title(slot, languageId));
+        generator.writeStringField("brief", snapshot.brief(slot, languageId));
+        generator.writeEndObject();
+    }
+
+    private static void reverse (int[] values, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    private static MessageDigest sha256 () {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly (Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Static catalog: " + path + " can not be removed: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package dev.kofe.engine.translation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/*
+ *  Translation state of one language
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  known    -- bit per node ID: the node has a descriptor of the language
+ *  missing  -- bit per node ID: the descriptor is not translated yet
+ *  total and missing counts are kept along with the bits, so the coverage is read in constant time;
+ *  a page of missing translations is a scan of the bitmap from the cursor (nextSetBit)
+ *  *****************************************************************
+ */
+
+class LanguageCoverage {
+
+    private final BitSet known = new BitSet();
+    private final BitSet missing = new BitSet();
+    private int total;
+    private int missingCount;
+
+    synchronized void put (int nodeId, boolean translated) {
+        if (!known.get(nodeId)) {
+            known.set(nodeId);
+            total++;
+        }
+        if (translated == missing.get(nodeId)) {
+            missing.set(nodeId, !translated);
+            missingCount += translated ? -1 : 1;
+        }
+    }
+
+    synchronized void remove (int nodeId) {
+        if (known.get(nodeId)) {
+            known.clear(nodeId);
+            total--;
+            if (missing.get(nodeId)) {
+                missing.clear(nodeId);
+                missingCount--;
+            }
+        }
+    }
+
+    synchronized int total () {
+        return total;
+    }
+
+    synchronized TranslationCoverage coverage (String languageCode) {
+        return TranslationCoverage.of(languageCode, total, missingCount);
+    }
+
+    // node IDs of untranslated descriptors greater than 'after', ascending
+    synchronized List<Long> missingAfter (long after, int limit) {
+        List<Long> nodeIds = new ArrayList<>(limit);
+        if (after >= Integer.MAX_VALUE) {
+            return nodeIds;
+        }
+        for (int nodeId = missing.nextSetBit((int) Math.max(0, after + 1));
+             nodeId >= 0 && nodeIds.size() < limit;
+             nodeId = (nodeId == Integer.MAX_VALUE) ? -1 : missing.nextSetBit(nodeId + 1)) {
+            nodeIds.add((long) nodeId);
+        }
+        return nodeIds;
+    }
+
+}
@@ -0,0 +1,3 @@
+package dev.kofe.engine.translation;
+
+public record MissingTranslation(Long nodeId, Long descriptorId, String brief) { }
@@ -0,0 +1,74 @@
+package dev.kofe.engine.translation;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*      Translations API
+ *      [Kofe Simple Engine]
+ *
+ *      GET /translations/coverage          :   translation coverage of every language, served from the in-memory index
+ *                                          :   JSON: [ { "language": "ENG", "total": N, "translated": N, "missing": N, "percent": 99.5 } ]
+ *                                          :   a descriptor is translated when its title is not blank
+ *                                          :   200 = ok
+ *
+ *      GET /translations/coverage/{code}   :   translation coverage of one language
+ *                                          :   200 = ok
+ *                                          :   404 = language not found
+ *
+ *      GET /translations/missing/{code}?after=ID&limit=N   :   page of untranslated descriptors ordered by node ID (keyset pagination)
+ *                                                          :   after (optional, 0 by default) = node ID of the last item of the previous page
+ *                                                          :   limit (optional, 100 by default, 500 max) = page size
+ *                                                          :   JSON: [ { "nodeId": N, "descriptorId": N, "brief": ".." } ]
+ *                                                          :   200 = ok
+ *                                                          :   404 = language not found
+ */
+
+@RestController
+@RequestMapping("/translations")
+public class TranslationController {
+
+    private final TranslationIndex translationIndex;
+    private static final Logger logger = LoggerFactory.getLogger(TranslationController.class);
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    public TranslationController (TranslationIndex translationIndex) {
+        this.translationIndex = translationIndex;
+    }
+
+    @GetMapping("/coverage")
+    public ResponseEntity<List<TranslationCoverage>> getAllCoverages () {
+        return new ResponseEntity<>(translationIndex.findAllCoverages(), HttpStatus.OK);
+    }
+
+    @GetMapping("/coverage/{code}")
+    public ResponseEntity<TranslationCoverage> getCoverage (@PathVariable String code) {
+        TranslationCoverage coverage = translationIndex.findCoverage(code);
+        if (coverage != null) {
+            return new ResponseEntity<>(coverage, HttpStatus.OK);
+        } else {
+            logger.warn("Language " + code + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @GetMapping("/missing/{code}")
+    public ResponseEntity<List<MissingTranslation>> getMissingPage (@PathVariable String code,
+                                                                    @RequestParam(defaultValue = "0") long after,
+                                                                    @RequestParam(defaultValue = "100") int limit) {
+        List<MissingTranslation> missing = translationIndex.findMissing(code, after, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        if (missing != null) {
+            return new ResponseEntity<>(missing, HttpStatus.OK);
+        } else {
+            logger.warn("Language " + code + " not found");
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+}
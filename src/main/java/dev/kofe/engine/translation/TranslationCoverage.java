@@ -0,0 +1,10 @@
+package dev.kofe.engine.translation;
+
+public record TranslationCoverage(String language, long total, long translated, long missing, double percent) {
+
+    static TranslationCoverage of (String language, long total, long missing) {
+        double percent = (total == 0) ? 100.0 : Math.round((total - missing) * 10000.0 / total) / 100.0;
+        return new TranslationCoverage(language, total, total - missing, missing, percent);
+    }
+
+}
@@ -0,0 +1,187 @@
+package dev.kofe.engine.translation;
+
+import dev.kofe.engine.common.CatalogEvent;
+import dev.kofe.engine.descriptor.DescriptorRepo;
+import dev.kofe.engine.descriptor.DescriptorText;
+import dev.kofe.engine.language.Language;
+import dev.kofe.engine.language.LanguageRegistry;
+import dev.kofe.engine.language.LanguageRepo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/*
+ *  Translation completeness index
+ *  [Kofe Simple Engine]
+ *  *****************************************************************
+ *  One LanguageCoverage (counts and a bitmap of untranslated node IDs) per language ID.
+ *  A descriptor is translated when its title is not blank (new nodes and new languages get empty descriptors).
+ *  Built on start from the descriptor texts (keyset pages, no entities),
+ *  then kept up to date after commit by CatalogEvent:
+ *      NODES_ADDED, NODES_UPDATED  -- texts of the listed nodes are re-read
+ *      NODES_DELETED               -- the listed nodes are removed from the counts and the bitmap: the deleted
+ *                                     subtree only, its surviving ancestors come as NODES_UPDATED (see CatalogEvent)
+ *      LANGUAGES_CHANGED           -- removed languages are dropped; a language is (re)built when it is new
+ *                                     or its number of descriptors differs (expansion / removal jobs)
+ *  Node IDs are bit indexes: IDs beyond the int range are not indexed (logged).
+ *  *****************************************************************
+ */
+
+@Service
+public class TranslationIndex {
+
+    private final DescriptorRepo descriptorRepo;
+    private final LanguageRepo languageRepo;
+    private final LanguageRegistry languageRegistry;
+    private final Map<Long, LanguageCoverage> coverages = new ConcurrentHashMap<>();
+    private static final Logger logger = LoggerFactory.getLogger(TranslationIndex.class);
+
+    @Value("${engine.batch.size:500}") private int batchSize;
+
+    @Autowired
+    public TranslationIndex (DescriptorRepo descriptorRepo,
+                             LanguageRepo languageRepo,
+                             LanguageRegistry languageRegistry) {
+        this.descriptorRepo = descriptorRepo;
+        this.languageRepo = languageRepo;
+        this.languageRegistry = languageRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build () {
+        long after = 0;
+        long indexed = 0;
+        List<DescriptorText> page;
+        do {
+            page = descriptorRepo.findTextsAfter(after, PageRequest.of(0, batchSize));
+            for (DescriptorText text : page) {
+                index(coverages, text);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+                indexed += page.size();
+            }
+        } while (page.size() == batchSize);
+        logger.info("Translation index has been built: " + indexed + " descriptor(s)");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogEvent (CatalogEvent event) {
+        switch (event.type()) {
+            case NODES_ADDED, NODES_UPDATED -> reindex(event.nodeIds());
+            case NODES_DELETED -> {
+                for (LanguageCoverage coverage : coverages.values()) {
+                    for (Long nodeId : event.nodeIds()) {
+                        if (isIndexable(nodeId)) {
+                            coverage.remove(nodeId.intValue());
+                        }
+                    }
+                }
+            }
+            case LANGUAGES_CHANGED -> {
+                Set<Long> languageIds = new HashSet<>();
+                for (Language language : languageRepo.findAll()) {
+                    languageIds.add(language.getId());
+                    LanguageCoverage coverage = coverages.get(language.getId());
+                    if (coverage == null || coverage.total() != descriptorRepo.countByLanguage_Id(language.getId())) {
+                        rebuild(language.getId());
+                    }
+                }
+                coverages.keySet().retainAll(languageIds);
+            }
+            default -> { }
+        }
+    }
+
+    // null if the language is not found
+    public TranslationCoverage findCoverage (String languageCode) {
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            return null;
+        }
+        LanguageCoverage coverage = coverages.get(language.getId());
+        return (coverage == null) ? TranslationCoverage.of(language.getCode(), 0, 0) : coverage.coverage(language.getCode());
+    }
+
+    public List<TranslationCoverage> findAllCoverages () {
+        List<TranslationCoverage> all = new ArrayList<>();
+        for (Language language : languageRegistry.findAll()) {
+            all.add(findCoverage(language.getCode()));
+        }
+        return all;
+    }
+
+    // keyset page of untranslated descriptors ordered by node ID; null if the language is not found
+    public List<MissingTranslation> findMissing (String languageCode, long after, int limit) {
+        Language language = languageRegistry.findByCode(languageCode);
+        if (language == null) {
+            return null;
+        }
+        LanguageCoverage coverage = coverages.get(language.getId());
+        List<Long> nodeIds = (coverage == null) ? List.of() : coverage.missingAfter(after, limit);
+        if (nodeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<MissingTranslation> missing = new ArrayList<>(nodeIds.size());
+        for (DescriptorText text : descriptorRepo.findTextsByLanguageAndNodeIds(language.getId(), nodeIds)) {
+            missing.add(new MissingTranslation(text.nodeId(), text.id(), text.brief()));
+        }
+        return missing;
+    }
+
+    // the language is built aside and swapped in, readers see either the old state or the new one
+    private void rebuild (long languageId) {
+        Map<Long, LanguageCoverage> built = new ConcurrentHashMap<>();
+        built.put(languageId, new LanguageCoverage());
+        long after = 0;
+        List<DescriptorText> page;
+        do {
+            page = descriptorRepo.findTextsByLanguageAfter(languageId, after, PageRequest.of(0, batchSize));
+            for (DescriptorText text : page) {
+                index(built, text);
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == batchSize);
+        coverages.put(languageId, built.get(languageId));
+        logger.info("Translation index has been rebuilt for the language id=" + languageId);
+    }
+
+    private void reindex (List<Long> nodeIds) {
+        for (int from = 0; from < nodeIds.size(); from += batchSize) {
+            List<Long> chunk = nodeIds.subList(from, Math.min(from + batchSize, nodeIds.size()));
+            for (DescriptorText text : descriptorRepo.findTextsByNodeIds(chunk)) {
+                index(coverages, text);
+            }
+        }
+    }
+
+    private static void index (Map<Long, LanguageCoverage> target, DescriptorText text) {
+        if (text.nodeId() != null && text.languageId() != null) {
+            if (isIndexable(text.nodeId())) {
+                target.computeIfAbsent(text.languageId(), (languageId) -> new LanguageCoverage())
+                        .put(text.nodeId().intValue(), text.title() != null && !text.title().isBlank());
+            } else {
+                logger.warn("Translation index: node id=" + text.nodeId() + " is out of the bitmap range, skipped");
+            }
+        }
+    }
+
+    private static boolean isIndexable (Long nodeId) {
+        return nodeId != null && nodeId >= 0 && nodeId <= Integer.MAX_VALUE;
+    }
+
+}